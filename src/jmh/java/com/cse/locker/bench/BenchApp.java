@@ -0,0 +1,46 @@
+package com.cse.locker.bench;
+
+import com.cse.locker.LockerWebApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트. 웹 서버 없이 내장 H2(PostgreSQL 모드)에 Flyway 스키마를 올려서 띄운다.
+ */
+public final class BenchApp {
+
+    private BenchApp() {}
+
+    public static ConfigurableApplicationContext start(int lockers) {
+        return start(lockers, Map.of());
+    }
+
+    public static ConfigurableApplicationContext start(int lockers, Map<String, Object> extra) {
+        Map<String, Object> props = new HashMap<>();
+        // 벤치마크마다 새 DB
+        props.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+        props.put("spring.datasource.username", "sa");
+        props.put("spring.datasource.password", "");
+        props.put("spring.datasource.hikari.maximum-pool-size", 16);
+        // H2는 text를 CLOB으로 만들어서 validate가 실패함(스키마는 Flyway가 이미 만듦)
+        props.put("spring.jpa.hibernate.ddl-auto", "none");
+        props.put("spring.jpa.properties.hibernate.format_sql", false);
+        props.put("spring.jpa.properties.hibernate.generate_statistics", false);
+        props.put("logging.level.root", "WARN");
+        props.put("app.lockers.banks[0].name", "bench");
+        props.put("app.lockers.banks[0].from", 1);
+        props.put("app.lockers.banks[0].to", lockers);
+        props.putAll(extra);
+
+        return new SpringApplicationBuilder(LockerWebApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(props)
+                .run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.cse.locker.bench;
+
+import com.cse.locker.admin.ApprovedCsvExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 승인 목록 CSV 내보내기(커서 + 버퍼 writer). 출력은 버리고 읽기/쓰기 비용만 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CsvExportBenchmark {
+
+    @Param({"1000", "50000"})
+    public int rows;
+
+    private ConfigurableApplicationContext ctx;
+    private ApprovedCsvExporter exporter;
+
+    @Setup(Level.Trial)
+    public void start() {
+        ctx = BenchApp.start(rows);
+        exporter = ctx.getBean(ApprovedCsvExporter.class);
+
+        // 승인된 신청을 rows건 직접 넣음(메모/해시 컬럼도 채워서 실제 row 크기와 비슷하게)
+        List<Object[]> batch = new ArrayList<>(rows);
+        Timestamp now = Timestamp.from(Instant.now());
+        for (int i = 1; i <= rows; i++) {
+            batch.add(new Object[]{"2024" + String.format("%05d", i), "학생" + i, "010-1234-" + String.format("%04d", i % 10000),
+                    i, "APPROVED", now, "메모 ".repeat(20), "$2a$10$abcdefghijklmnopqrstuuVwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ01"});
+        }
+        ctx.getBean(JdbcTemplate.class).batchUpdate(
+                "insert into applications (student_id, name, phone, locker_number, status, created_at, memo, lookup_code_hash) " +
+                        "values (?, ?, ?, ?, ?, ?, ?, ?)",
+                batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public void exportApproved() throws IOException {
+        exporter.write(OutputStream.nullOutputStream());
+    }
+}
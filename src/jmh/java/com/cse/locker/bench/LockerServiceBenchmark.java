@@ -0,0 +1,97 @@
+package com.cse.locker.bench;
+
+import com.cse.locker.service.LockerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LockerService 핫패스: 그리드 조회, 신청(경합 없음/있음), 확인코드 조회.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LockerServiceBenchmark {
+
+    // 경합 없는 신청이 한 iteration 동안 다 못 쓸 만큼 넉넉하게
+    private static final int LOCKERS = 20_000;
+    // 경합 신청이 노리는 사물함 수(앞번호 몇 개에 몰리는 오픈 직후 상황)
+    private static final int HOT_LOCKERS = 8;
+
+    private ConfigurableApplicationContext ctx;
+    private LockerService service;
+
+    // 경합 없는 신청은 HOT_LOCKERS 다음 번호부터 하나씩
+    private final AtomicInteger nextLocker = new AtomicInteger();
+    private final AtomicLong nextStudent = new AtomicLong();
+
+    private String lookupStudentId;
+    private String lookupCode;
+
+    @Setup(Level.Trial)
+    public void start() {
+        ctx = BenchApp.start(LOCKERS);
+        service = ctx.getBean(LockerService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetState() {
+        service.resetAll();
+        nextLocker.set(HOT_LOCKERS);
+
+        // 조회 벤치마크용 신청 한 건(마지막 번호)
+        lookupStudentId = "L" + nextStudent.incrementAndGet();
+        lookupCode = service.apply(lookupStudentId, "조회", "010-0000-0000", LOCKERS);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public List<LockerService.LockerDto> getLockerGrid() {
+        return service.getLockerGrid();
+    }
+
+    @Benchmark
+    public String applyUncontended() {
+        int locker = nextLocker.incrementAndGet();
+        if (locker >= LOCKERS) {
+            throw new IllegalStateException("iteration 안에 사물함이 바닥남: LOCKERS를 늘리세요");
+        }
+        return service.apply("U" + nextStudent.incrementAndGet(), "벤치", "010-0000-0000", locker);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String applyContended() {
+        // 여러 스레드가 같은 몇 개 번호를 노림. 먼저 잡은 쪽 이후는 "이미 신청된 사물함" 경로
+        int locker = 1 + ThreadLocalRandom.current().nextInt(HOT_LOCKERS);
+        try {
+            return service.apply("C" + nextStudent.incrementAndGet(), "벤치", "010-0000-0000", locker);
+        } catch (IllegalStateException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public LockerService.MyStatusDto lookupByCode() {
+        // requireValidLookup(최신 신청 조회 + BCrypt matches) 경로
+        return service.getMyStatus(lookupStudentId, lookupCode, null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.cse.locker.bench;
+
+import com.cse.locker.service.LotteryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 추첨 한 번(응모 읽기 + 메모리 추첨 + 배정/대기 명단 배치 쓰기). 추첨이 응모를 비우므로 매번 다시 채운다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LotteryDrawBenchmark {
+
+    @Param({"10000", "100000"})
+    public int entrants;
+
+    @Param({"2000"})
+    public int lockers;
+
+    private ConfigurableApplicationContext ctx;
+    private LotteryService lottery;
+    private JdbcTemplate jdbc;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // 응모 기간은 이미 끝난 것으로(drawNow 가능)
+        OffsetDateTime now = OffsetDateTime.now();
+        ctx = BenchApp.start(lockers, Map.of(
+                "app.lottery.enabled", true,
+                "app.lottery.opens-at", now.minusHours(2).toString(),
+                "app.lottery.closes-at", now.minusHours(1).toString()
+        ));
+        lottery = ctx.getBean(LotteryService.class);
+        jdbc = ctx.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void fillEntries() {
+        jdbc.update("delete from applications");
+        jdbc.update("delete from waitlist_entries");
+        jdbc.update("update lockers set state = 'AVAILABLE', reserved_student_id = null");
+
+        // 희망 사물함 1~3개(앞 번호에 몰리게), 일부는 "아무 사물함"
+        SplittableRandom rnd = new SplittableRandom(7);
+        List<Object[]> batch = new ArrayList<>(entrants);
+        OffsetDateTime now = OffsetDateTime.now();
+        for (int i = 1; i <= entrants; i++) {
+            StringBuilder choices = new StringBuilder();
+            int n = rnd.nextInt(4);
+            for (int c = 0; c < n; c++) {
+                if (c > 0) choices.append(',');
+                choices.append(1 + (int) (lockers * Math.pow(rnd.nextDouble(), 2)));
+            }
+            batch.add(new Object[]{"2024" + String.format("%06d", i), "학생" + i, "010-0000-0000",
+                    "$2a$10$abcdefghijklmnopqrstuuVwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ01", choices.toString(), now});
+        }
+        jdbc.batchUpdate("insert into lottery_entries (student_id, name, phone, lookup_code_hash, choices, created_at) " +
+                "values (?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public LotteryService.DrawReport draw() {
+        return lottery.drawNow(42L);
+    }
+}
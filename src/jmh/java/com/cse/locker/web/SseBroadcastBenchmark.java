@@ -0,0 +1,86 @@
+package com.cse.locker.web;
+
+import com.cse.locker.config.SseProperties;
+import com.cse.locker.service.LockerChange;
+import com.cse.locker.service.LockerChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SseController.broadcast: 순번/직렬화/프레임 생성 + 구독자 큐에 넣기.
+ * 실제 소켓 대신 보낸 프레임을 버리는 emitter를 쓴다(전송은 디스패처 스레드에서 따로 돎).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SseBroadcastBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int subscribers;
+
+    private SseHub hub;
+    private SseController controller;
+    private LockerChangeEvent event;
+
+    // HTTP 응답 없이 프레임을 버리는 emitter
+    static final class DiscardingEmitter extends SseEmitter {
+        DiscardingEmitter(long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        SseProperties props = new SseProperties(4, 4096, Duration.ofHours(1), Duration.ofHours(1),
+                subscribers, subscribers, Duration.ofMillis(200));
+        hub = new SseHub(props, new SimpleMeterRegistry(), DiscardingEmitter::new);
+        controller = new SseController(hub, props, new ObjectMapper());
+        for (int i = 0; i < subscribers; i++) {
+            controller.subscribe(null);
+        }
+
+        event = new LockerChangeEvent(List.of(
+                new LockerChange("APPLIED", 17, "RESERVED", "20241234", 42L, "홍길동", "010-1234-5678")
+        ), false);
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkEvictions() {
+        // 디스패처가 못 따라가서 끊긴 구독자가 있으면 결과가 실제보다 좋게 나옴
+        long evicted = controller.adminChannel().evictedCount();
+        if (evicted > 0) {
+            System.err.println("경고: 큐가 넘쳐 끊긴 구독자 " + evicted + "명 (queue-capacity를 늘리세요)");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        hub.shutdown();
+    }
+
+    @Benchmark
+    public void broadcast() {
+        controller.broadcast(event);
+    }
+}
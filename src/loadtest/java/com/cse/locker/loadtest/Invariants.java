@@ -0,0 +1,54 @@
+package com.cse.locker.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하가 끝난 뒤 DB 상태가 맞는지 확인한다. 하나라도 깨지면 false.
+ */
+final class Invariants {
+
+    private Invariants() {}
+
+    static boolean check(JdbcTemplate jdbc) {
+        boolean ok = true;
+
+        // 사물함 하나에 신청이 두 건 이상 붙으면 안 됨
+        ok &= expectNone(jdbc, "사물함 중복 배정",
+                "select locker_number, count(*) as cnt from applications group by locker_number having count(*) > 1");
+
+        // 학생 한 명에 활성 신청(PENDING/APPROVED)이 두 건 이상이면 안 됨
+        ok &= expectNone(jdbc, "학생당 활성 신청 2건 이상",
+                "select student_id, count(*) as cnt from applications where status in ('PENDING', 'APPROVED') " +
+                        "group by student_id having count(*) > 1");
+
+        // 신청과 사물함 상태가 서로 맞아야 함(PENDING=RESERVED, APPROVED=APPROVED, 같은 학번)
+        ok &= expectNone(jdbc, "신청/사물함 상태 불일치",
+                "select a.id, a.locker_number, a.status, l.state, l.reserved_student_id from applications a " +
+                        "left join lockers l on l.locker_number = a.locker_number " +
+                        "where l.locker_number is null " +
+                        "or l.reserved_student_id is null or l.reserved_student_id <> a.student_id " +
+                        "or (a.status = 'PENDING' and l.state <> 'RESERVED') " +
+                        "or (a.status = 'APPROVED' and l.state <> 'APPROVED')");
+
+        // 잡혀 있는 사물함에는 반드시 신청이 있어야 함
+        ok &= expectNone(jdbc, "신청 없이 잡힌 사물함",
+                "select l.locker_number, l.state from lockers l " +
+                        "where l.state <> 'AVAILABLE' and not exists " +
+                        "(select 1 from applications a where a.locker_number = l.locker_number)");
+
+        System.out.println(ok ? "정합성 확인: 통과" : "정합성 확인: 실패");
+        return ok;
+    }
+
+    private static boolean expectNone(JdbcTemplate jdbc, String name, String sql) {
+        List<Map<String, Object>> rows = jdbc.queryForList(sql);
+        if (rows.isEmpty()) return true;
+
+        System.out.printf("[위반] %s: %d건%n", name, rows.size());
+        rows.stream().limit(10).forEach(r -> System.out.println("  " + r));
+        return false;
+    }
+}
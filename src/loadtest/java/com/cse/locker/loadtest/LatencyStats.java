@@ -0,0 +1,63 @@
+package com.cse.locker.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 엔드포인트별 응답 시간 기록. 끝날 때 한 번 정렬해서 백분위를 뽑는다.
+ */
+final class LatencyStats {
+
+    private static final class Series {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long n, boolean error) {
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = n;
+            if (error) errors++;
+        }
+
+        synchronized long[] sorted() {
+            long[] out = Arrays.copyOf(nanos, size);
+            Arrays.sort(out);
+            return out;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+    }
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, boolean error) {
+        series.computeIfAbsent(endpoint, k -> new Series()).add(nanos, error);
+    }
+
+    String report(double elapsedSeconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-32s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)"));
+        for (Map.Entry<String, Series> e : new TreeMap<>(series).entrySet()) {
+            long[] v = e.getValue().sorted();
+            if (v.length == 0) continue;
+            sb.append(String.format("%-32s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    e.getKey(), v.length, e.getValue().errors(), v.length / elapsedSeconds,
+                    ms(percentile(v, 0.50)), ms(percentile(v, 0.99)), ms(percentile(v, 0.999)), ms(v[v.length - 1])));
+        }
+        return sb.toString();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(idx, sorted.length - 1))];
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
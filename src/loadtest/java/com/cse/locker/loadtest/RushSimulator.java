@@ -0,0 +1,304 @@
+package com.cse.locker.loadtest;
+
+import com.cse.locker.LockerWebApplication;
+import com.cse.locker.service.LockerService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 신청 오픈 당일 재현용 부하 발생기.
+ *
+ * 앱을 랜덤 포트로 직접 띄우고(기본은 내장 H2, -PdbUrl로 로컬 PostgreSQL 지정 가능)
+ * 학생 N명이 오픈 직후에 몰리는 도착 분포(지수 분포)로 그리드 조회 -> 신청을 하고,
+ * 관리자 몇 명이 대기 목록을 일괄 승인한다. 끝나면 엔드포인트별 처리량/백분위와
+ * 정합성(사물함 중복 배정 없음, 학생당 활성 신청 1건)을 확인하고, 깨졌으면 종료 코드 1.
+ *
+ * 실행: ./gradlew loadTest -Pstudents=5000 -Plockers=1000 -Pramp=30
+ */
+public final class RushSimulator {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final int MAX_APPLY_ATTEMPTS = 3;
+
+    // 실행 설정(-P값이 rush.* 시스템 프로퍼티로 넘어옴)
+    record Settings(int students, int lockers, int rampSeconds, int admins, int concurrency, String dbUrl,
+                    String dbUser, String dbPassword) {
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("rush.students", 5000),
+                    Integer.getInteger("rush.lockers", 1000),
+                    Integer.getInteger("rush.ramp", 30),
+                    Integer.getInteger("rush.admins", 2),
+                    Integer.getInteger("rush.concurrency", 256),
+                    System.getProperty("rush.dbUrl", ""),
+                    System.getProperty("rush.dbUser", "locker"),
+                    System.getProperty("rush.dbPassword", "lockerpass")
+            );
+        }
+    }
+
+    private final Settings settings;
+    private final LatencyStats stats = new LatencyStats();
+    private final HttpClient studentHttp;
+    private String baseUrl;
+
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder soldOut = new LongAdder();
+    private final LongAdder gaveUp = new LongAdder();
+    private final LongAdder approvedCount = new LongAdder();
+
+    private RushSimulator(Settings settings) {
+        this.settings = settings;
+        this.studentHttp = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(8))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        var ctx = startApp(settings);
+        boolean ok;
+        try {
+            // 외부 DB를 쓸 때도 매번 빈 상태에서 시작
+            ctx.getBean(LockerService.class).resetAll();
+
+            RushSimulator sim = new RushSimulator(settings);
+            sim.baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) ctx).getWebServer().getPort();
+            sim.run();
+            ok = Invariants.check(ctx.getBean(JdbcTemplate.class));
+        } finally {
+            ctx.close();
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static org.springframework.context.ConfigurableApplicationContext startApp(Settings s) {
+        Map<String, Object> props = new HashMap<>();
+        props.put("server.port", 0);
+        props.put("logging.level.root", "WARN");
+        props.put("spring.jpa.properties.hibernate.format_sql", false);
+        props.put("app.lockers.banks[0].name", "rush");
+        props.put("app.lockers.banks[0].from", 1);
+        props.put("app.lockers.banks[0].to", s.lockers());
+        props.put("spring.datasource.hikari.maximum-pool-size", 32);
+
+        if (s.dbUrl().isBlank()) {
+            props.put("spring.datasource.url", "jdbc:h2:mem:rush-" + UUID.randomUUID()
+                    + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+            props.put("spring.datasource.username", "sa");
+            props.put("spring.datasource.password", "");
+            // H2는 text를 CLOB으로 만들어서 validate가 실패함(스키마는 Flyway가 이미 만듦)
+            props.put("spring.jpa.hibernate.ddl-auto", "none");
+        } else {
+            props.put("spring.datasource.url", s.dbUrl());
+            props.put("spring.datasource.username", s.dbUser());
+            props.put("spring.datasource.password", s.dbPassword());
+        }
+
+        return new SpringApplicationBuilder(LockerWebApplication.class).properties(props).run();
+    }
+
+    private void run() throws Exception {
+        System.out.printf("학생 %d명 / 사물함 %d개 / 도착 구간 %ds / 관리자 %d명 / 동시 요청 %d%n",
+                settings.students(), settings.lockers(), settings.rampSeconds(), settings.admins(), settings.concurrency());
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        ScheduledExecutorService arrivals = Executors.newSingleThreadScheduledExecutor();
+        CountDownLatch done = new CountDownLatch(settings.students());
+        AtomicBoolean studentsFinished = new AtomicBoolean(false);
+
+        List<Thread> admins = new ArrayList<>();
+        for (int i = 0; i < settings.admins(); i++) {
+            Thread t = new Thread(() -> adminLoop(studentsFinished), "rush-admin-" + i);
+            t.start();
+            admins.add(t);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < settings.students(); i++) {
+            String studentId = String.format("2025%06d", i);
+            long delayMillis = arrivalDelayMillis();
+            arrivals.schedule(() -> workers.execute(() -> {
+                try {
+                    student(studentId);
+                } catch (Exception e) {
+                    gaveUp.increment();
+                } finally {
+                    done.countDown();
+                }
+            }), delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        done.await();
+        studentsFinished.set(true);
+        for (Thread t : admins) t.join();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        arrivals.shutdownNow();
+        workers.shutdownNow();
+
+        System.out.printf("%n경과 %.1fs / 신청 성공 %d / 매진 %d / 포기(오류) %d / 승인 %d%n%n",
+                elapsed, applied.sum(), soldOut.sum(), gaveUp.sum(), approvedCount.sum());
+        System.out.print(stats.report(elapsed));
+    }
+
+    private long arrivalDelayMillis() {
+        // 오픈 직후에 몰리고 뒤로 갈수록 줄어드는 도착(평균 = 구간의 1/5), 구간 밖은 잘라냄
+        double mean = settings.rampSeconds() * 1000.0 / 5;
+        double d = -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * mean;
+        return (long) Math.min(d, settings.rampSeconds() * 1000.0);
+    }
+
+    // -----------------------
+    // Student
+    // -----------------------
+
+    private void student(String studentId) throws Exception {
+        for (int attempt = 0; attempt < MAX_APPLY_ATTEMPTS; attempt++) {
+            Integer locker = pickAvailableLocker();
+            if (locker == null) {
+                soldOut.increment();
+                return;
+            }
+
+            String body = JSON.writeValueAsString(Map.of(
+                    "studentId", studentId, "name", "학생" + studentId, "phone", "010-0000-0000", "lockerNumber", locker));
+            HttpResponse<String> res = send(studentHttp, "POST /api/public/apply", HttpRequest.newBuilder(uri("/api/public/apply"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+
+            if (res.statusCode() == 200) {
+                applied.increment();
+                return;
+            }
+            if (res.statusCode() == 202) {
+                if (waitForTicket(JSON.readTree(res.body()).path("ticket").asText())) {
+                    applied.increment();
+                    return;
+                }
+                continue;
+            }
+            if (res.statusCode() == 503) {
+                Thread.sleep(1000L * res.headers().firstValueAsLong("Retry-After").orElse(1));
+            }
+            // 400(다른 학생이 먼저 잡음 등): 그리드를 다시 보고 재시도
+        }
+        gaveUp.increment();
+    }
+
+    private Integer pickAvailableLocker() throws Exception {
+        HttpResponse<String> res = send(studentHttp, "GET /api/public/lockers", HttpRequest.newBuilder(uri("/api/public/lockers")).GET());
+        if (res.statusCode() != 200) return null;
+
+        List<Integer> available = new ArrayList<>();
+        for (JsonNode n : JSON.readTree(res.body())) {
+            if ("AVAILABLE".equals(n.path("state").asText())) available.add(n.path("lockerNumber").asInt());
+        }
+        if (available.isEmpty()) return null;
+        // 실제 학생들처럼 앞쪽 번호에 조금 더 몰리게
+        int idx = (int) (available.size() * Math.pow(ThreadLocalRandom.current().nextDouble(), 2));
+        return available.get(idx);
+    }
+
+    private boolean waitForTicket(String ticket) throws Exception {
+        while (true) {
+            Thread.sleep(500);
+            HttpResponse<String> res = send(studentHttp, "GET /api/public/apply/queue",
+                    HttpRequest.newBuilder(uri("/api/public/apply/queue/" + ticket)).GET());
+            if (res.statusCode() != 200) return false;
+            String state = JSON.readTree(res.body()).path("state").asText();
+            if ("DONE".equals(state)) return true;
+            if ("FAILED".equals(state)) return false;
+        }
+    }
+
+    // -----------------------
+    // Admin
+    // -----------------------
+
+    private void adminLoop(AtomicBoolean studentsFinished) {
+        HttpClient http = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        try {
+            String form = "username=admin&password=" + URLEncoder.encode("admin1234", StandardCharsets.UTF_8);
+            send(http, "POST /login", HttpRequest.newBuilder(uri("/login"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form)));
+
+            while (true) {
+                boolean finished = studentsFinished.get();
+                HttpResponse<String> res = send(http, "GET /api/admin/pending", HttpRequest.newBuilder(uri("/api/admin/pending")).GET());
+                if (res.statusCode() != 200) throw new IllegalStateException("관리자 로그인 실패: HTTP " + res.statusCode());
+
+                List<Long> ids = new ArrayList<>();
+                for (JsonNode n : JSON.readTree(res.body())) {
+                    ids.add(n.path("id").asLong());
+                    if (ids.size() == 200) break;
+                }
+
+                if (!ids.isEmpty()) {
+                    HttpResponse<String> approved = send(http, "POST /api/admin/approve", HttpRequest.newBuilder(uri("/api/admin/approve"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(Map.of("ids", ids)))));
+                    if (approved.statusCode() == 200) {
+                        approvedCount.add(JSON.readTree(approved.body()).path("succeeded").asLong());
+                    }
+                } else if (finished) {
+                    return;
+                }
+                Thread.sleep(500);
+            }
+        } catch (Exception e) {
+            System.err.println("관리자 루프 중단: " + e);
+        }
+    }
+
+    // -----------------------
+    // HTTP
+    // -----------------------
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private HttpResponse<String> send(HttpClient http, String endpoint, HttpRequest.Builder req) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> res = null;
+        try {
+            res = http.send(req.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+            return res;
+        } finally {
+            // 400(먼저 잡힘)은 정상 경합 결과라 오류로 세지 않음
+            boolean error = res == null || res.statusCode() >= 500;
+            stats.record(endpoint, System.nanoTime() - start, error);
+        }
+    }
+}
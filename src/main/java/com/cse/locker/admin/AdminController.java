@@ -17,14 +17,10 @@ import org.springframework.security.core.Authentication;  // 로그인한 관리
 import org.springframework.security.crypto.password.PasswordEncoder; // 비밀번호 해시 비교/생성
 import org.springframework.web.bind.annotation.*;
 
-// CSV를 UTF-8로 쓰기 위한 도구
-import java.io.OutputStreamWriter;                        // OutputStream을 문자 스트림으로 바꿔줌
-import java.nio.charset.StandardCharsets;                 // UTF-8 같은 인코딩 상수 제공
-
 // 입출력/컬렉션
 import java.io.IOException;                               // 파일/스트림 처리 중 예외
-import java.io.PrintWriter;                               // 텍스트를 쉽게 출력하는 Writer
 import java.util.List;                                    // 리스트
+import java.util.zip.GZIPOutputStream;                    // CSV 압축 전송
 
 @RestController
 @RequiredArgsConstructor
@@ -37,38 +33,26 @@ public class AdminController {
     private final ApplicationRepository applicationRepository;
     // 비밀번호를 "암호화/검증"하기 위한 도구
     private final PasswordEncoder passwordEncoder;
+    // 승인 목록 CSV 작성(커서로 한 줄씩)
+    private final ApprovedCsvExporter csvExporter;
 
 
     // 승인된 학생 현황 JSON
     @GetMapping("/approved")
     public List<ApprovedDto> approvedList() {
 
-        // status가 APPROVED인 신청만 가져옴
-        return applicationRepository.findByStatus(Application.Status.APPROVED)
-
-                // 가져온 어플리케이션을 stream으로 순회하면서
-                .stream()
-
-                // 각 어플리케이션을 ApprovedDto로 변환
-                .map(a -> new ApprovedDto(
-                        a.getLockerNumber(),
-                        a.getStudentId(),
-                        a.getName(),
-                        a.getPhone(),
-                        a.getStatus().name()
-                ))
-
-                // stream 결과를 다시 List로 수집해서 반환
-                .toList();
+        // status가 APPROVED인 신청만, ApprovedDto에 필요한 컬럼만 읽어서 바로 담음(엔티티 생성/변경 추적 없음)
+        return applicationRepository.findByStatusOrderByIdAsc(Application.Status.APPROVED, ApprovedDto.class);
     }
 
     // 승인 목록을 JSON으로 내려줄 때 쓰는 데이터 묶음
+    // (조회 projection 겸용이라 status는 엔티티와 같은 enum. JSON에는 이름 그대로 나감)
     public record ApprovedDto(
             int lockerNumber,
             String studentId,
             String name,
             String phone,
-            String status
+            Application.Status status
     ) {}
 
 
@@ -101,8 +85,13 @@ public class AdminController {
 
 
     // 사물함 이용자 목록을 CSV로 다운로드하는 API
+    // gzip=true이고 브라우저가 gzip을 받으면 압축해서 보냄(파일은 그대로 .csv로 저장됨)
     @GetMapping("/approved/export")
-    public void exportApproved(HttpServletResponse response) throws IOException {
+    public void exportApproved(
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding,
+            HttpServletResponse response
+    ) throws IOException {
 
         // 응답의 Context-Type을 CSV로 설정
         response.setContentType("text/csv; charset=UTF-8");
@@ -113,29 +102,17 @@ public class AdminController {
         // 브라우저가 "파일 다운로드"로 처리하도록 헤더 설정
         response.setHeader("Content-Disposition", "attachment; filename=approved_lockers.csv");
 
-        // UTF-8 BOM 추가 (엑셀 한글 깨짐 방지)
-        var out = response.getOutputStream();
-        out.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
-
-        // OutputStreamWriter로 UTF-8 강제
-        PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
-
-        writer.println("사물함번호,학번,이름,전화번호");
-
-        // 승인된 신청자들을 DB에서 가져옴
-        List<Application> approved = applicationRepository.findByStatus(Application.Status.APPROVED);
-
-        // 한 줄씩 CSV로 기록
-        for (Application app : approved) {
-            writer.printf("%d,\"%s\",\"%s\",\"\t%s\"%n",
-                    app.getLockerNumber(),
-                    app.getStudentId(),
-                    app.getName(),
-                    app.getPhone()
-            );
+        boolean compress = gzip && acceptEncoding != null && acceptEncoding.contains("gzip");
+        if (!compress) {
+            csvExporter.write(response.getOutputStream());
+            return;
         }
 
-        writer.flush();
+        response.setHeader("Content-Encoding", "gzip");
+        response.setHeader("Vary", "Accept-Encoding");
+        try (GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 8192)) {
+            csvExporter.write(out);
+        }
     }
 
 
@@ -0,0 +1,91 @@
+package com.cse.locker.admin;
+
+import com.cse.locker.domain.Application;
+import com.cse.locker.repo.ApplicationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * 승인된 사물함 이용자 CSV 작성기.
+ *
+ * 엔티티 목록을 한 번에 올리지 않고, 내보낼 네 컬럼만 DB 커서로 한 줄씩 읽어서 바로 쓴다.
+ * 행 수와 상관없이 메모리는 버퍼 크기만큼만 쓴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApprovedCsvExporter {
+
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final String HEADER = "사물함번호,학번,이름,전화번호";
+    private static final String NEWLINE = System.lineSeparator();
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    // 내보내는 컬럼만 담는 projection(영속성 컨텍스트에 올라가지 않음)
+    public record Row(int lockerNumber, String studentId, String name, String phone) {}
+
+    private final ApplicationRepository applicationRepository;
+
+    // 커서는 트랜잭션 안에서만 열려 있으므로 쓰기까지 여기서 끝냄
+    @Transactional(readOnly = true)
+    public void write(OutputStream out) throws IOException {
+        // UTF-8 BOM 추가 (엑셀 한글 깨짐 방지)
+        out.write(UTF8_BOM);
+
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+        w.write(HEADER);
+        w.write(NEWLINE);
+
+        try (Stream<Row> rows = applicationRepository.streamByStatusOrderByLockerNumberAsc(
+                Application.Status.APPROVED, Row.class)) {
+            rows.forEach(r -> writeRow(w, r));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        w.flush();
+    }
+
+    private static void writeRow(Writer w, Row r) {
+        try {
+            w.write(Integer.toString(r.lockerNumber()));
+            w.write(',');
+            writeQuoted(w, "", r.studentId());
+            w.write(',');
+            writeQuoted(w, "", r.name());
+            w.write(',');
+            // 전화번호 앞 탭: 엑셀이 숫자로 바꿔 앞자리 0을 지우지 않게 함
+            writeQuoted(w, "\t", r.phone());
+            w.write(NEWLINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeQuoted(Writer w, String prefix, String value) throws IOException {
+        w.write('"');
+        w.write(prefix);
+        if (value != null) {
+            // 따옴표만 두 번 써서 이스케이프(나머지 문자는 따옴표 안이라 그대로)
+            int start = 0;
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) == '"') {
+                    w.write(value, start, i - start + 1);
+                    w.write('"');
+                    start = i + 1;
+                }
+            }
+            w.write(value, start, value.length() - start);
+        }
+        w.write('"');
+    }
+}
@@ -0,0 +1,35 @@
+package com.cse.locker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * application.yml의 app.admin-auth 설정(관리자 로그인 유지 방식).
+ *
+ * @param mode         session(서버 세션, 기본) / token(서명된 쿠키만으로 확인, 서버 여러 대용)
+ * @param secret       token 모드의 HMAC 서명 키. 비워두면 시작할 때마다 랜덤(재시작 시 다시 로그인, 서버 여러 대면 반드시 지정)
+ * @param ttl          토큰 유효 시간(절반이 지나면 요청 때 새 토큰으로 바꿔 줌)
+ * @param maxLifetime  로그인 후 토큰을 계속 바꿔 받아도 넘을 수 없는 최대 시간(지나면 다시 로그인)
+ * @param cookieName   토큰을 담는 쿠키 이름
+ * @param secureCookie true면 HTTPS에서만 쿠키 전송
+ */
+@ConfigurationProperties(prefix = "app.admin-auth")
+public record AdminAuthProperties(String mode, String secret, Duration ttl, Duration maxLifetime,
+                                  String cookieName, boolean secureCookie) {
+    public AdminAuthProperties {
+        if (mode == null || mode.isBlank()) mode = "session";
+        mode = mode.trim().toLowerCase();
+        if (!mode.equals("session") && !mode.equals("token")) {
+            throw new IllegalArgumentException("app.admin-auth.mode는 session 또는 token만 가능합니다: " + mode);
+        }
+        if (ttl == null) ttl = Duration.ofHours(8);
+        if (maxLifetime == null) maxLifetime = Duration.ofHours(24);
+        if (maxLifetime.compareTo(ttl) < 0) maxLifetime = ttl;
+        if (cookieName == null || cookieName.isBlank()) cookieName = "ADMIN_TOKEN";
+    }
+
+    public boolean stateless() {
+        return mode.equals("token");
+    }
+}
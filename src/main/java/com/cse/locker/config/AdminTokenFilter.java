@@ -0,0 +1,73 @@
+package com.cse.locker.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * token 모드에서 요청마다 관리자 쿠키를 확인해 로그인 상태를 만든다(HMAC 한 번, 세션/DB 없음).
+ * 빈으로 등록하지 않는다(서블릿 필터로 자동 등록되면 보안 필터 체인 밖에서도 한 번 더 돌기 때문).
+ *
+ * 세션이 없으므로 SSE(/sse/admin)의 ASYNC 디스패치와 ERROR 디스패치에서도 다시 돌고,
+ * 만든 로그인 상태는 요청 속성 저장소에도 넣어 같은 요청의 다음 디스패치가 이어받게 한다.
+ */
+class AdminTokenFilter extends OncePerRequestFilter {
+
+    private final AdminTokenService tokens;
+    private final SecurityContextRepository contextRepository;
+
+    AdminTokenFilter(AdminTokenService tokens, SecurityContextRepository contextRepository) {
+        this.tokens = tokens;
+        this.contextRepository = contextRepository;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdminTokenService.Claims claims = tokens.verify(readCookie(request));
+        if (claims != null) {
+            // 토큰은 관리자 로그인에서만 발급되므로 권한은 ADMIN 고정
+            SecurityContext ctx = SecurityContextHolder.createEmptyContext();
+            ctx.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                    claims.username(), null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+            SecurityContextHolder.setContext(ctx);
+            contextRepository.saveContext(ctx, request, response);
+
+            // 쿠키 갱신은 첫 디스패치에서만(ASYNC/ERROR 때는 응답이 이미 커밋됐을 수 있음)
+            if (!isAsyncDispatch(request) && tokens.shouldRenew(claims)) {
+                response.addHeader(HttpHeaders.SET_COOKIE, tokens.renewCookie(claims).toString());
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String readCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return null;
+        for (Cookie c : cookies) {
+            if (tokens.cookieName().equals(c.getName())) return c.getValue();
+        }
+        return null;
+    }
+}
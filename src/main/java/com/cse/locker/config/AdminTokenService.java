@@ -0,0 +1,86 @@
+package com.cse.locker.config;
+
+import org.springframework.http.ResponseCookie;
+
+import java.time.Instant;
+
+/**
+ * token 모드(app.admin-auth.mode=token)에서 관리자 로그인 성공 시 발급하는 서명 토큰.
+ * 토큰 = base64url(만료시각|발급시각|로그인시각|아이디) + "." + base64url(HMAC-SHA256)
+ *
+ * 서명 키만 같으면 어느 서버에서든 세션 저장소/DB 조회 없이 확인할 수 있다.
+ * 사용 중이면 새 토큰으로 바꿔 주지만 로그인 시각은 그대로 넘겨서, 로그인 후 max-lifetime이 지나면
+ * 무조건 다시 로그인해야 한다. 비밀번호를 바꾸거나 계정을 지워도 서버에 기록이 없으므로
+ * 이미 발급된 토큰은 그때까지 유효하다.
+ */
+class AdminTokenService {
+
+    record Claims(String username, Instant issuedAt, Instant loginAt, Instant expiresAt) {}
+
+    private final AdminAuthProperties props;
+    private final HmacSigner signer;
+
+    AdminTokenService(AdminAuthProperties props) {
+        this.props = props;
+        this.signer = new HmacSigner(props.secret(), "app.admin-auth.secret");
+    }
+
+    String cookieName() {
+        return props.cookieName();
+    }
+
+    ResponseCookie issueCookie(String username) {
+        // 로그인 직후
+        return issueCookie(username, Instant.now());
+    }
+
+    ResponseCookie renewCookie(Claims claims) {
+        // 로그인 시각은 처음 것 그대로
+        return issueCookie(claims.username(), claims.loginAt());
+    }
+
+    private ResponseCookie issueCookie(String username, Instant loginAt) {
+        Instant now = Instant.now();
+        // 만료는 ttl 뒤지만 로그인 후 max-lifetime은 넘지 않음
+        Instant exp = min(now.plus(props.ttl()), loginAt.plus(props.maxLifetime()));
+        String token = signer.sign(exp.getEpochSecond(), now.getEpochSecond(), loginAt.getEpochSecond(), username);
+
+        // HttpOnly: 스크립트에서 못 읽음 / SameSite=Strict: 다른 사이트에서 온 요청엔 안 붙음(CSRF 비활성화 보완)
+        return ResponseCookie.from(props.cookieName(), token)
+                .path("/")
+                .httpOnly(true)
+                .secure(props.secureCookie())
+                .sameSite("Strict")
+                .maxAge(Math.max(0, exp.getEpochSecond() - now.getEpochSecond()))
+                .build();
+    }
+
+    boolean shouldRenew(Claims claims) {
+        // 유효 시간의 절반이 지나면 다음 요청 때 새로 발급(화면을 켜 둔 관리자가 갑자기 로그아웃되지 않게)
+        // 이미 max-lifetime 끝까지 늘어난 토큰은 더 늘릴 수 없으므로 바꾸지 않음
+        Instant now = Instant.now();
+        Instant cap = claims.loginAt().plus(props.maxLifetime());
+        return claims.expiresAt().isBefore(cap) && now.isAfter(claims.issuedAt().plus(props.ttl().dividedBy(2)));
+    }
+
+    Claims verify(String token) {
+        // 형식/서명/만료/최대 유지 시간 중 하나라도 틀리면 null
+        String[] parts = signer.verify(token, 4);
+        if (parts == null) return null;
+
+        try {
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(parts[0]));
+            Instant issuedAt = Instant.ofEpochSecond(Long.parseLong(parts[1]));
+            Instant loginAt = Instant.ofEpochSecond(Long.parseLong(parts[2]));
+            Instant now = Instant.now();
+            if (now.isAfter(expiresAt) || now.isAfter(loginAt.plus(props.maxLifetime()))) return null;
+            return new Claims(parts[3], issuedAt, loginAt, expiresAt);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
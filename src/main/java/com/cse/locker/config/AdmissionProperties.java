@@ -0,0 +1,33 @@
+package com.cse.locker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * application.yml의 app.admission 설정(신청 대기열).
+ *
+ * @param enabled          true면 /api/public/apply가 바로 처리하지 않고 대기표를 발급함
+ * @param permitsPerSecond 초당 LockerService로 넘기는 신청 수
+ * @param workers          동시에 신청을 처리하는 스레드 수(= 신청 처리에 쓰는 DB 커넥션 상한)
+ * @param capacity         대기열 최대 길이(넘치면 503)
+ * @param abandonAfter     이 시간 동안 순번 조회가 없으면 창을 닫은 것으로 보고 대기표를 버림
+ * @param resultTtl        처리 결과(확인코드/실패 사유)를 보관하는 시간
+ */
+@ConfigurationProperties(prefix = "app.admission")
+public record AdmissionProperties(
+        boolean enabled,
+        int permitsPerSecond,
+        int workers,
+        int capacity,
+        Duration abandonAfter,
+        Duration resultTtl
+) {
+    public AdmissionProperties {
+        if (permitsPerSecond <= 0) permitsPerSecond = 20;
+        if (workers <= 0) workers = 4;
+        if (capacity <= 0) capacity = 20000;
+        if (abandonAfter == null) abandonAfter = Duration.ofSeconds(30);
+        if (resultTtl == null) resultTtl = Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,27 @@
+package com.cse.locker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * application.yml의 app.events 설정(사물함 변경 이벤트를 서버끼리 나누는 방법).
+ *
+ * @param bus            memory(서버 한 대) / postgres(LISTEN/NOTIFY로 모든 서버에 전달)
+ * @param channel        postgres 모드에서 쓰는 NOTIFY 채널 이름
+ * @param nodeId         이 서버의 이름. 비우면 시작할 때마다 랜덤(자기가 보낸 알림을 걸러내는 데만 씀)
+ * @param reconnectDelay LISTEN 연결이 끊겼을 때 다시 붙기 전 대기 시간
+ */
+@ConfigurationProperties(prefix = "app.events")
+public record EventBusProperties(String bus, String channel, String nodeId, Duration reconnectDelay) {
+    public EventBusProperties {
+        if (bus == null || bus.isBlank()) bus = "memory";
+        if (channel == null || channel.isBlank()) channel = "locker_changes";
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("app.events.channel은 영문 소문자/숫자/밑줄만 쓸 수 있습니다: " + channel);
+        }
+        if (nodeId == null || nodeId.isBlank()) nodeId = UUID.randomUUID().toString();
+        if (reconnectDelay == null) reconnectDelay = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,44 @@
+package com.cse.locker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * application.yml의 app.hashing 설정(확인코드 해시 방식 + 전용 스레드 풀).
+ *
+ * 관리자 비밀번호(SecurityConfig.passwordEncoder)와는 따로 설정한다.
+ * 방식/비용을 바꿔도 기존 해시는 그대로 검증되고, 검증에 성공할 때 새 설정으로 다시 저장된다.
+ *
+ * @param threads          해시 계산 스레드 수(기본: CPU 코어 수)
+ * @param queueCapacity    대기 가능한 해시 작업 수(넘치면 바로 503)
+ * @param timeout          요청 스레드가 결과를 기다리는 최대 시간(대기 + 계산)
+ * @param algorithm        새로 저장할 해시 방식: bcrypt 또는 pbkdf2(기본 bcrypt)
+ * @param bcryptStrength   bcrypt 비용(log2 라운드, 4~31, 기본 10)
+ * @param pbkdf2Iterations pbkdf2(HMAC-SHA256) 반복 횟수(기본 310000)
+ */
+@ConfigurationProperties(prefix = "app.hashing")
+public record HashingProperties(
+        int threads,
+        int queueCapacity,
+        Duration timeout,
+        String algorithm,
+        int bcryptStrength,
+        int pbkdf2Iterations
+) {
+    public HashingProperties {
+        if (threads <= 0) threads = Runtime.getRuntime().availableProcessors();
+        if (queueCapacity <= 0) queueCapacity = 64;
+        if (timeout == null) timeout = Duration.ofSeconds(5);
+        if (algorithm == null || algorithm.isBlank()) algorithm = "bcrypt";
+        algorithm = algorithm.trim().toLowerCase();
+        if (!algorithm.equals("bcrypt") && !algorithm.equals("pbkdf2")) {
+            throw new IllegalArgumentException("app.hashing.algorithm은 bcrypt 또는 pbkdf2만 가능합니다: " + algorithm);
+        }
+        if (bcryptStrength <= 0) bcryptStrength = 10;
+        if (bcryptStrength < 4 || bcryptStrength > 31) {
+            throw new IllegalArgumentException("app.hashing.bcrypt-strength는 4~31이어야 합니다: " + bcryptStrength);
+        }
+        if (pbkdf2Iterations <= 0) pbkdf2Iterations = 310_000;
+    }
+}
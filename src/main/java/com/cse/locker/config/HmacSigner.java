@@ -0,0 +1,92 @@
+package com.cse.locker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 조회 토큰/관리자 토큰이 같이 쓰는 HMAC-SHA256 서명.
+ * 토큰 = base64url(값1|값2|...) + "." + base64url(HMAC-SHA256)
+ *
+ * 마지막 값에는 '|'가 들어가도 된다(나눌 때 개수를 정해서 자름).
+ */
+public final class HmacSigner {
+
+    private static final Logger log = LoggerFactory.getLogger(HmacSigner.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64D = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+
+    // Mac은 스레드 안전하지 않아서 스레드마다 하나씩
+    private final ThreadLocal<Mac> mac;
+
+    /**
+     * @param secret        서명 키. 비어 있으면 랜덤 키(재시작하면 기존 토큰 무효)
+     * @param propertyName  비어 있을 때 경고에 찍을 설정 이름
+     */
+    public HmacSigner(String secret, String propertyName) {
+        byte[] bytes;
+        if (secret == null || secret.isBlank()) {
+            bytes = new byte[32];
+            new SecureRandom().nextBytes(bytes);
+            log.warn("{}가 비어 있어 임시 키를 사용합니다. 재시작하면 발급된 토큰이 모두 무효가 됩니다.", propertyName);
+        } else {
+            bytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(bytes, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac m = Mac.getInstance(ALGORITHM);
+            m.init(key);
+            return m;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC 초기화 실패", e);
+        }
+    }
+
+    public String sign(Object... fields) {
+        StringBuilder sb = new StringBuilder();
+        for (Object f : fields) {
+            if (sb.length() > 0) sb.append('|');
+            sb.append(f);
+        }
+        byte[] payload = sb.toString().getBytes(StandardCharsets.UTF_8);
+        return B64.encodeToString(payload) + "." + B64.encodeToString(mac.get().doFinal(payload));
+    }
+
+    /**
+     * 형식/서명이 맞으면 값 fields개, 아니면 null(만료 등 값 검사는 호출한 쪽에서).
+     */
+    public String[] verify(String token, int fields) {
+        if (token == null) return null;
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) return null;
+
+        byte[] payload;
+        byte[] sig;
+        try {
+            payload = B64D.decode(token.substring(0, dot));
+            sig = B64D.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        if (!MessageDigest.isEqual(mac.get().doFinal(payload), sig)) return null;
+
+        String[] parts = new String(payload, StandardCharsets.UTF_8).split("\\|", fields);
+        return parts.length == fields ? parts : null;
+    }
+}
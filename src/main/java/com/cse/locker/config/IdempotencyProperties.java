@@ -0,0 +1,19 @@
+package com.cse.locker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * application.yml의 app.idempotency 설정(Idempotency-Key 응답 보관소).
+ *
+ * @param maximumSize 최대 보관 키 수(넘으면 오래 안 쓴 것부터 제거)
+ * @param ttl         첫 응답을 보관하는 시간(이 안의 재시도는 같은 응답을 받음)
+ */
+@ConfigurationProperties(prefix = "app.idempotency")
+public record IdempotencyProperties(long maximumSize, Duration ttl) {
+    public IdempotencyProperties {
+        if (maximumSize <= 0) maximumSize = 100_000;
+        if (ttl == null) ttl = Duration.ofMinutes(10);
+    }
+}
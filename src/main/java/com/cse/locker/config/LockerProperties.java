@@ -0,0 +1,71 @@
+package com.cse.locker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * application.yml의 app.lockers 설정.
+ * 사물함은 "뱅크(건물/층 단위의 번호 구간)" 목록으로 정의한다.
+ *
+ * <pre>
+ * app:
+ *   lockers:
+ *     banks:
+ *       - name: 공학관-1층
+ *         from: 1
+ *         to: 50
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "app.lockers")
+public record LockerProperties(List<Bank> banks) {
+
+    // 사물함 번호 구간 하나(양 끝 포함)
+    public record Bank(String name, int from, int to) {
+        public int size() {
+            return to - from + 1;
+        }
+    }
+
+    public LockerProperties {
+        // 설정이 없으면 기존과 같은 1..50 한 뱅크
+        if (banks == null || banks.isEmpty()) {
+            banks = List.of(new Bank("default", 1, 50));
+        }
+        banks = List.copyOf(banks);
+
+        for (Bank b : banks) {
+            if (b.from() < 1 || b.to() < b.from()) {
+                throw new IllegalArgumentException("잘못된 사물함 구간: " + b);
+            }
+        }
+        for (int i = 0; i < banks.size(); i++) {
+            for (int j = i + 1; j < banks.size(); j++) {
+                Bank a = banks.get(i);
+                Bank b = banks.get(j);
+                if (a.from() <= b.to() && b.from() <= a.to()) {
+                    throw new IllegalArgumentException("사물함 구간이 겹칩니다: " + a + ", " + b);
+                }
+            }
+        }
+    }
+
+    public int totalCount() {
+        int sum = 0;
+        for (Bank b : banks) sum += b.size();
+        return sum;
+    }
+
+    public int maxNumber() {
+        int max = 0;
+        for (Bank b : banks) max = Math.max(max, b.to());
+        return max;
+    }
+
+    public boolean contains(int lockerNumber) {
+        for (Bank b : banks) {
+            if (lockerNumber >= b.from() && lockerNumber <= b.to()) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cse.locker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * application.yml의 app.lookup-cache 설정(학번별 최신 신청 캐시).
+ *
+ * @param maximumSize 최대 보관 학번 수(넘으면 오래 안 쓴 것부터 제거)
+ * @param ttl         저장 후 이 시간이 지나면 다시 DB에서 읽음
+ */
+@ConfigurationProperties(prefix = "app.lookup-cache")
+public record LookupCacheProperties(long maximumSize, Duration ttl) {
+    public LookupCacheProperties {
+        if (maximumSize <= 0) maximumSize = 50_000;
+        if (ttl == null) ttl = Duration.ofMinutes(10);
+    }
+}
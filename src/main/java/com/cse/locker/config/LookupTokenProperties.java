@@ -0,0 +1,18 @@
+package com.cse.locker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * application.yml의 app.lookup-token 설정(학번+확인코드 확인 후 발급하는 조회 토큰).
+ *
+ * @param secret HMAC 서명 키. 비워두면 서버 시작 때마다 랜덤 키를 씀(재시작 시 기존 토큰 무효, 서버 여러 대면 반드시 지정)
+ * @param ttl    토큰 유효 시간
+ */
+@ConfigurationProperties(prefix = "app.lookup-token")
+public record LookupTokenProperties(String secret, Duration ttl) {
+    public LookupTokenProperties {
+        if (ttl == null) ttl = Duration.ofMinutes(30);
+    }
+}
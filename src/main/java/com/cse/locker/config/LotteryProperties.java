@@ -0,0 +1,38 @@
+package com.cse.locker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.OffsetDateTime;
+
+/**
+ * application.yml의 app.lottery 설정(선착순 대신 추첨으로 배정).
+ *
+ * 켜져 있으면 opensAt~closesAt 동안 /api/public/apply는 희망 사물함만 기록하고,
+ * closesAt이 지나면 한 번 추첨해서 배정/대기 명단을 한꺼번에 쓴다. 그 뒤로는 평소처럼 선착순.
+ *
+ * @param enabled    추첨 모드 사용 여부(기본 false)
+ * @param opensAt    응모 시작 시각(예: 2026-03-02T09:00:00+09:00)
+ * @param closesAt   응모 마감 시각. 지나면 자동으로 추첨
+ * @param maxChoices 희망 사물함 최대 개수
+ * @param seed       추첨 seed(비우면 추첨할 때 랜덤으로 정하고 기록에 남김)
+ */
+@ConfigurationProperties(prefix = "app.lottery")
+public record LotteryProperties(
+        boolean enabled,
+        OffsetDateTime opensAt,
+        OffsetDateTime closesAt,
+        int maxChoices,
+        Long seed
+) {
+    public LotteryProperties {
+        if (maxChoices <= 0) maxChoices = 3;
+        if (enabled) {
+            if (opensAt == null || closesAt == null) {
+                throw new IllegalArgumentException("app.lottery.opens-at / closes-at을 지정해야 합니다.");
+            }
+            if (!closesAt.isAfter(opensAt)) {
+                throw new IllegalArgumentException("app.lottery.closes-at은 opens-at 뒤여야 합니다.");
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.cse.locker.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        // @Timed가 붙은 빈(LockerService)의 메서드 호출 시간을 기록
+        return new TimedAspect(registry);
+    }
+}
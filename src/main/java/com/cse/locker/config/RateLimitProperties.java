@@ -0,0 +1,37 @@
+package com.cse.locker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * application.yml의 app.rate-limit 설정(학생 조회 API 요청 제한).
+ *
+ * 토큰 버킷: 처음엔 burst만큼 한 번에 쓸 수 있고, 이후엔 분당 perMinute개씩 다시 찬다.
+ *
+ * @param enabled          false면 제한하지 않음(기본 true)
+ * @param studentBurst     학번 하나가 한 번에 시도할 수 있는 확인코드 검증 수
+ * @param studentPerMinute 학번 하나의 분당 확인코드 검증 수(추측 공격 속도 상한)
+ * @param ipBurst          IP 하나가 한 번에 보낼 수 있는 조회 요청 수
+ * @param ipPerMinute      IP 하나의 분당 조회 요청 수(학교 NAT 뒤 여러 학생을 고려해 넉넉하게)
+ * @param stripes          버킷 표를 나누는 락 수(2의 거듭제곱으로 올림)
+ * @param maxKeys          기억하는 학번/IP 버킷 최대 수(넘치면 다 찬 버킷부터, 그래도 가득이면 가장 오래 안 쓴 버킷을 버림)
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(
+        Boolean enabled,
+        int studentBurst,
+        int studentPerMinute,
+        int ipBurst,
+        int ipPerMinute,
+        int stripes,
+        int maxKeys
+) {
+    public RateLimitProperties {
+        if (enabled == null) enabled = true;
+        if (studentBurst <= 0) studentBurst = 5;
+        if (studentPerMinute <= 0) studentPerMinute = 10;
+        if (ipBurst <= 0) ipBurst = 60;
+        if (ipPerMinute <= 0) ipPerMinute = 300;
+        if (stripes <= 0) stripes = 64;
+        if (maxKeys <= 0) maxKeys = 100_000;
+    }
+}
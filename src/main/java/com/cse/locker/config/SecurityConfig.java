@@ -5,12 +5,18 @@ import com.cse.locker.repo.AdminUserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
 
 @Configuration
 @EnableWebSecurity
@@ -18,10 +24,11 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     private final AdminUserRepository adminRepo;
+    private final AdminAuthProperties adminAuth;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        // 비밀번호는 BCrypt 해시로 저장/검증
+        // 관리자 비밀번호는 BCrypt 해시로 저장/검증(학생 확인코드는 LookupCodeHasher가 따로 관리)
         return new BCryptPasswordEncoder();
     }
 
@@ -55,10 +62,14 @@ public class SecurityConfig {
                                 "/api/public/**"
                         ).permitAll()
 
-                        // 관리자만 접근 가능: 관리자 페이지 + 관리자 API
+                        // 헬스체크/프로메테우스 수집은 인증 없이(외부에 노출하지 않도록 LB/방화벽에서 막을 것)
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+
+                        // 관리자만 접근 가능: 관리자 페이지 + 관리자 API + 나머지 actuator
                         .requestMatchers(
                                 "/admin.html", "/admin-approved.html",
-                                "/api/admin/**"
+                                "/api/admin/**",
+                                "/actuator/**"
                         ).hasRole("ADMIN")
 
                         // 나머지는 로그인 필요
@@ -81,6 +92,33 @@ public class SecurityConfig {
                         .logoutSuccessUrl("/login.html")
                 );
 
+        if (adminAuth.stateless()) {
+            useAdminToken(http);
+        }
+
         return http.build();
     }
+
+    private void useAdminToken(HttpSecurity http) throws Exception {
+        // token 모드: 세션을 만들지 않고 로그인 성공 시 서명된 쿠키를 발급,
+        // 이후 요청은 AdminTokenFilter가 쿠키만 보고 확인(서버 여러 대에서 그대로 동작)
+        AdminTokenService tokens = new AdminTokenService(adminAuth);
+        // 로그인 상태는 요청 속성에만 둠(세션 없음). SSE의 ASYNC 디스패치도 여기서 이어받음
+        SecurityContextRepository contextRepository = new RequestAttributeSecurityContextRepository();
+
+        http
+                .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext(sc -> sc.securityContextRepository(contextRepository))
+                // 로그인 전 요청 주소를 세션에 저장하지 않음
+                .requestCache(rc -> rc.requestCache(new NullRequestCache()))
+                .addFilterBefore(new AdminTokenFilter(tokens, contextRepository), UsernamePasswordAuthenticationFilter.class)
+                .formLogin(form -> form
+                        .successHandler((request, response, authentication) -> {
+                            response.addHeader(HttpHeaders.SET_COOKIE,
+                                    tokens.issueCookie(authentication.getName()).toString());
+                            response.sendRedirect(request.getContextPath() + "/admin.html");
+                        })
+                )
+                .logout(logout -> logout.deleteCookies(tokens.cookieName()));
+    }
 }
@@ -0,0 +1,37 @@
+package com.cse.locker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * application.yml의 app.sse 설정(실시간 이벤트 전송).
+ *
+ * @param dispatcherThreads 구독자 큐를 비우며 실제로 전송하는 스레드 수
+ * @param queueCapacity     구독자 한 명당 밀려 있을 수 있는 이벤트 수(넘치면 느린 구독자로 보고 끊음)
+ * @param heartbeat         하트비트 주기(끊긴 연결을 찾아내고 프록시 유휴 타임아웃을 막음)
+ * @param timeout           연결 하나의 최대 유지 시간(지나면 브라우저가 Last-Event-ID로 재연결)
+ * @param adminMaxSubscribers 관리자 채널 최대 동시 연결 수
+ * @param publicMaxSubscribers 학생용 그리드 스트림 최대 동시 연결 수
+ * @param publicInterval      학생용 그리드 스트림 전송 간격(이 간격 안의 변경은 한 이벤트로 합쳐짐)
+ */
+@ConfigurationProperties(prefix = "app.sse")
+public record SseProperties(
+        int dispatcherThreads,
+        int queueCapacity,
+        Duration heartbeat,
+        Duration timeout,
+        int adminMaxSubscribers,
+        int publicMaxSubscribers,
+        Duration publicInterval
+) {
+    public SseProperties {
+        if (dispatcherThreads <= 0) dispatcherThreads = 4;
+        if (queueCapacity <= 0) queueCapacity = 256;
+        if (heartbeat == null) heartbeat = Duration.ofSeconds(15);
+        if (timeout == null) timeout = Duration.ofMinutes(30);
+        if (adminMaxSubscribers <= 0) adminMaxSubscribers = 200;
+        if (publicMaxSubscribers <= 0) publicMaxSubscribers = 5000;
+        if (publicInterval == null || publicInterval.toMillis() < 50) publicInterval = Duration.ofMillis(200);
+    }
+}
@@ -3,7 +3,11 @@ package com.cse.locker.domain;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "lockers")
+@Table(
+        name = "lockers",
+        // 한 학생은 동시에 사물함 하나만 잡을 수 있음(null은 여러 개 허용)
+        uniqueConstraints = @UniqueConstraint(name = "uk_lockers_reserved_student_id", columnNames = "reserved_student_id")
+)
 public class Locker {
 
     public enum State { AVAILABLE, RESERVED, APPROVED }
@@ -0,0 +1,55 @@
+package com.cse.locker.domain;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+@Entity
+@Table(
+        name = "waitlist_entries",
+        // 한 학생은 한 번만 대기
+        uniqueConstraints = @UniqueConstraint(name = "uk_waitlist_entries_student_id", columnNames = "student_id")
+)
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // 등록 순서(작을수록 먼저)
+
+    @Column(nullable = false)
+    private String studentId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String phone;
+
+    @Column(name = "lookup_code_hash", nullable = false)
+    private String lookupCodeHash; // 등록 때 발급한 확인코드 해시(배정되면 신청에 그대로 옮김)
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    protected WaitlistEntry() {
+        // JPA 기본 생성자(필수)
+    }
+
+    public WaitlistEntry(String studentId, String name, String phone, String lookupCodeHash) {
+        this.studentId = studentId;
+        this.name = name;
+        this.phone = phone;
+        this.lookupCodeHash = lookupCodeHash;
+    }
+
+    @PrePersist
+    void prePersist() {
+        if (createdAt == null) createdAt = Instant.now();
+    }
+
+    public Long getId() { return id; }
+    public String getStudentId() { return studentId; }
+    public String getName() { return name; }
+    public String getPhone() { return phone; }
+    public String getLookupCodeHash() { return lookupCodeHash; }
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -2,19 +2,42 @@ package com.cse.locker.repo;
 
 import com.cse.locker.domain.Application;
 import com.cse.locker.domain.Application.Status;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ApplicationRepository extends JpaRepository<Application, Long> {
 
-    // 특정 상태(PENDING/APPROVED)의 신청 목록 조회
-    List<Application> findByStatus(Status status);
-
-    // 사물함 번호 기준으로 신청 삭제
-    void deleteByLockerNumber(int lockerNumber);
+    // 특정 상태(PENDING/APPROVED)의 신청 목록 조회. type(레코드) 생성자에 필요한 컬럼만 select하고 엔티티는 만들지 않음
+    <T> List<T> findByStatusOrderByIdAsc(Status status, Class<T> type);
+
+    // 특정 상태의 신청을 type(레코드)의 컬럼만 골라 커서로 한 건씩 읽음(내보내기용, 트랜잭션 안에서 닫아야 함)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    <T> Stream<T> streamByStatusOrderByLockerNumberAsc(Status status, Class<T> type);
+
+    // 사물함 번호 기준으로 신청 삭제(엔티티를 읽지 않고 DELETE 한 번, 삭제된 row 수 반환)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Application a where a.lockerNumber = :lockerNumber")
+    int deleteByLockerNumber(@Param("lockerNumber") int lockerNumber);
+
+    // 확인코드 해시 교체(재해시). 그 사이 다른 해시로 바뀌었으면 건드리지 않고 0 반환
+    @Transactional
+    @Modifying
+    @Query("update Application a set a.lookupCodeHash = :newHash where a.id = :id and a.lookupCodeHash = :oldHash")
+    int replaceLookupCodeHash(@Param("id") long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 
     // 학번 기준 최신 신청 1건 조회(id 내림차순)
     Optional<Application> findTopByStudentIdOrderByIdDesc(String studentId);
@@ -0,0 +1,49 @@
+package com.cse.locker.repo;
+
+import com.cse.locker.config.LockerProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 사물함 row를 "한 건씩"이 아니라 묶어서 다루는 JDBC 전용 레포지토리.
+ * JPA로 수만 건을 save하면 영속성 컨텍스트에 전부 쌓이고 한 건마다 왕복이 생겨서 따로 둔다.
+ */
+@Repository
+public class LockerJdbcRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbc;
+
+    public LockerJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public int insertMissing(LockerProperties inventory) {
+        // 이미 있는 번호는 한 번의 조회로 비트셋에 담아두고, 없는 번호만 배치 INSERT
+        BitSet existing = new BitSet(inventory.maxNumber() + 1);
+        jdbc.query("select locker_number from lockers", rs -> {
+            existing.set(rs.getInt(1));
+        });
+
+        List<Integer> missing = new ArrayList<>();
+        for (LockerProperties.Bank bank : inventory.banks()) {
+            for (int n = bank.from(); n <= bank.to(); n++) {
+                if (!existing.get(n)) missing.add(n);
+            }
+        }
+        if (missing.isEmpty()) return 0;
+
+        jdbc.batchUpdate(
+                "insert into lockers (locker_number, state, reserved_student_id) values (?, 'AVAILABLE', null)",
+                missing,
+                BATCH_SIZE,
+                (ps, n) -> ps.setInt(1, n)
+        );
+        return missing.size();
+    }
+}
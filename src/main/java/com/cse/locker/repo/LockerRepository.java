@@ -1,6 +1,43 @@
 package com.cse.locker.repo;
 
 import com.cse.locker.domain.Locker;
+import com.cse.locker.domain.Locker.State;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface LockerRepository extends JpaRepository<Locker, Integer> {}
+public interface LockerRepository extends JpaRepository<Locker, Integer> {
+
+    // 전체 사물함을 AVAILABLE로 되돌림(UPDATE 한 번, 이미 비어있는 row는 건드리지 않음)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Locker l set l.state = :available, l.reservedStudentId = null " +
+            "where l.state <> :available or l.reservedStudentId is not null")
+    int resetAllTo(@Param("available") State available);
+
+    // 기대한 상태일 때만 상태/학번을 바꾸는 원자적 compare-and-set(바뀐 row 수 0 또는 1 반환)
+    // 같은 사물함을 동시에 노리는 요청은 row 락에서 줄을 서고, 먼저 커밋한 쪽만 1을 받음
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Locker l set l.state = :next, l.reservedStudentId = :studentId " +
+            "where l.lockerNumber = :lockerNumber and l.state = :expected")
+    int compareAndSetState(@Param("lockerNumber") int lockerNumber,
+                           @Param("expected") State expected,
+                           @Param("next") State next,
+                           @Param("studentId") String studentId);
+
+    // 선점한 학생이 그대로 잡고 있을 때만 AVAILABLE로 되돌림(선점 뒤 신청 저장이 실패한 경우)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Locker l set l.state = :available, l.reservedStudentId = null " +
+            "where l.lockerNumber = :lockerNumber and l.state = :held and l.reservedStudentId = :studentId")
+    int releaseClaim(@Param("lockerNumber") int lockerNumber,
+                     @Param("held") State held,
+                     @Param("studentId") String studentId,
+                     @Param("available") State available);
+
+    // 이 학번이 이미 잡고 있는 사물함이 있는지(uk_lockers_reserved_student_id 충돌 전에 확인)
+    boolean existsByReservedStudentId(String reservedStudentId);
+
+    default int resetAllToAvailable() {
+        return resetAllTo(State.AVAILABLE);
+    }
+}
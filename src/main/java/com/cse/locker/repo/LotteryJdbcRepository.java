@@ -0,0 +1,159 @@
+package com.cse.locker.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 추첨 모드 응모/추첨 결과를 JDBC로 묶어서 다루는 레포지토리.
+ * 추첨은 응모 수만 건을 한 번에 읽고 배정/대기 명단을 한 번에 쓰므로 JPA 대신 배치 SQL을 쓴다.
+ */
+@Repository
+public class LotteryJdbcRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    // 추첨에 쓰는 응모 한 건(희망 사물함은 앞쪽이 우선, 비어 있으면 아무 사물함)
+    public record Entry(String studentId, String name, String phone, String lookupCodeHash, int[] choices) {}
+
+    // 추첨 결과 배정 한 건
+    public record Assignment(int lockerNumber, Entry entry) {}
+
+    private final JdbcTemplate jdbc;
+
+    public LotteryJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void insertEntry(String studentId, String name, String phone, String lookupCodeHash, int[] choices) {
+        // 학번 유니크 제약(uk_lottery_entries_student_id)에 걸리면 DuplicateKeyException
+        jdbc.update("insert into lottery_entries (student_id, name, phone, lookup_code_hash, choices, created_at) " +
+                        "values (?, ?, ?, ?, ?, ?)",
+                studentId, name, phone, lookupCodeHash, joinChoices(choices), OffsetDateTime.now());
+    }
+
+    public int countEntries() {
+        Integer n = jdbc.queryForObject("select count(*) from lottery_entries", Integer.class);
+        return n == null ? 0 : n;
+    }
+
+    public List<Entry> loadEntries() {
+        // 응모 순서(id)대로 전부 메모리에 올림(10만 건이어도 수십 MB 이하)
+        List<Entry> out = new ArrayList<>();
+        jdbc.query("select student_id, name, phone, lookup_code_hash, choices from lottery_entries order by id", rs -> {
+            out.add(new Entry(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                    parseChoices(rs.getString(5))));
+        });
+        return out;
+    }
+
+    public BitSet lockAvailableLockers(int maxNumber) {
+        // 빈 사물함 row를 잠그고 읽음. 다른 서버가 동시에 추첨하면 여기서 기다렸다가
+        // 먼저 끝난 추첨이 응모를 비운 뒤라 빈 결과로 끝남
+        BitSet available = new BitSet(maxNumber + 1);
+        jdbc.query("select locker_number from lockers where state = 'AVAILABLE' for update", rs -> {
+            available.set(rs.getInt(1));
+        });
+        return available;
+    }
+
+    public Set<String> studentsHoldingLockers() {
+        Set<String> out = new HashSet<>();
+        jdbc.query("select reserved_student_id from lockers where reserved_student_id is not null", rs -> {
+            out.add(rs.getString(1));
+        });
+        return out;
+    }
+
+    public Set<String> waitlistedStudents() {
+        Set<String> out = new HashSet<>();
+        jdbc.query("select student_id from waitlist_entries", rs -> {
+            out.add(rs.getString(1));
+        });
+        return out;
+    }
+
+    public void writeAssignments(List<Assignment> assignments) {
+        if (assignments.isEmpty()) return;
+
+        // 잠가 둔 빈 사물함만 배정하므로 조건(state = 'AVAILABLE')은 모두 맞음
+        jdbc.batchUpdate(
+                "update lockers set state = 'RESERVED', reserved_student_id = ? " +
+                        "where locker_number = ? and state = 'AVAILABLE'",
+                assignments,
+                BATCH_SIZE,
+                (ps, a) -> {
+                    ps.setString(1, a.entry().studentId());
+                    ps.setInt(2, a.lockerNumber());
+                }
+        );
+
+        OffsetDateTime now = OffsetDateTime.now();
+        jdbc.batchUpdate(
+                "insert into applications (student_id, name, phone, locker_number, status, created_at, memo, lookup_code_hash) " +
+                        "values (?, ?, ?, ?, 'PENDING', ?, '', ?)",
+                assignments,
+                BATCH_SIZE,
+                (ps, a) -> {
+                    ps.setString(1, a.entry().studentId());
+                    ps.setString(2, a.entry().name());
+                    ps.setString(3, a.entry().phone());
+                    ps.setInt(4, a.lockerNumber());
+                    ps.setObject(5, now);
+                    ps.setString(6, a.entry().lookupCodeHash());
+                }
+        );
+    }
+
+    public void insertWaitlist(List<Entry> entries) {
+        // 넘긴 순서대로 id가 매겨지므로 추첨 순서가 곧 대기 순번
+        if (entries.isEmpty()) return;
+        OffsetDateTime now = OffsetDateTime.now();
+        jdbc.batchUpdate(
+                "insert into waitlist_entries (student_id, name, phone, lookup_code_hash, created_at) values (?, ?, ?, ?, ?)",
+                entries,
+                BATCH_SIZE,
+                (ps, e) -> {
+                    ps.setString(1, e.studentId());
+                    ps.setString(2, e.name());
+                    ps.setString(3, e.phone());
+                    ps.setString(4, e.lookupCodeHash());
+                    ps.setObject(5, now);
+                }
+        );
+    }
+
+    public int deleteEntries() {
+        return jdbc.update("delete from lottery_entries");
+    }
+
+    public void insertDraw(long seed, int entrants, int assigned, int waitlisted, int skipped,
+                           long loadMillis, long drawMillis, long writeMillis) {
+        jdbc.update("insert into lottery_draws (seed, entrants, assigned, waitlisted, skipped, " +
+                        "load_millis, draw_millis, write_millis, drawn_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                seed, entrants, assigned, waitlisted, skipped, loadMillis, drawMillis, writeMillis, OffsetDateTime.now());
+    }
+
+    private static String joinChoices(int[] choices) {
+        StringBuilder sb = new StringBuilder();
+        for (int c : choices) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static int[] parseChoices(String s) {
+        if (s == null || s.isBlank()) return new int[0];
+        String[] parts = s.split(",");
+        int[] out = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) out[i] = Integer.parseInt(parts[i].trim());
+        return out;
+    }
+}
@@ -0,0 +1,31 @@
+package com.cse.locker.repo;
+
+import com.cse.locker.domain.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // 서버 시작 시 메모리 대기열을 채울 때(등록 순서대로)
+    List<WaitlistEntry> findAllByOrderByIdAsc();
+
+    // 대기 맨 앞을 잠그고 읽음(호출한 트랜잭션이 끝날 때까지). 다른 트랜잭션이 배정 중인 항목은 건너뜀
+    // 서버가 여러 대여도 순서는 DB의 id 순서 하나
+    @Query(value = "select * from waitlist_entries order by id limit 1 for update skip locked", nativeQuery = true)
+    Optional<WaitlistEntry> lockHead();
+
+    // 내 앞에 있는 인원(순번 = 이 값 + 1)
+    long countByIdLessThan(long id);
+
+    Optional<WaitlistEntry> findByStudentId(String studentId);
+
+    // 대기 항목을 꺼냄(지운 row 수 반환). 같은 항목을 동시에 꺼내려는 쪽은 row 락에서 기다렸다가 0을 받음
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.id = :id")
+    int claim(@Param("id") long id);
+}
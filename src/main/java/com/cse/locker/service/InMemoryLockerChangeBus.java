@@ -0,0 +1,27 @@
+package com.cse.locker.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * 서버 한 대용(기본값). 변경을 이 프로세스 안에서만 발행한다.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.bus", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLockerChangeBus implements LockerChangeBus {
+
+    private final LockerGridCache gridCache;
+    private final ApplicationEventPublisher events;
+
+    public InMemoryLockerChangeBus(LockerGridCache gridCache, ApplicationEventPublisher events) {
+        this.gridCache = gridCache;
+        this.events = events;
+    }
+
+    @Override
+    public void publish(LockerChangeEvent event) {
+        gridCache.requestRebuild();
+        events.publishEvent(event);
+    }
+}
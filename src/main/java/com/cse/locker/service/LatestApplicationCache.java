@@ -0,0 +1,163 @@
+package com.cse.locker.service;
+
+import com.cse.locker.config.LookupCacheProperties;
+import com.cse.locker.domain.Application;
+import com.cse.locker.domain.Locker;
+import com.cse.locker.repo.ApplicationRepository;
+import com.cse.locker.repo.LockerRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 학번별 "최신 신청 1건" 캐시(read-through).
+ *
+ * 신청할 때의 중복 검사와 학생 조회(my-status 등)가 매번 하던
+ * findTopByStudentIdOrderByIdDesc + 사물함 조회를 처음 한 번만 하고 이후는 메모리에서 답한다.
+ * 신청 데이터를 바꾸는 LockerService 메서드는 모두 해당 학번을 무효화해야 한다.
+ *
+ * 무효화는 바로 한 번, 트랜잭션이 끝난 뒤 한 번 더 한다. 커밋 전에 다른 요청이
+ * 옛 값을 다시 읽어 넣어도 커밋 뒤 무효화로 지워진다.
+ * 서버가 여러 대면 다른 서버에서 커밋된 변경은 LockerChangeEvent(postgres 버스)로 받아서 지운다.
+ *
+ * 학번을 모르는 무효화(사물함 번호 기준/전체)는 캐시를 훑지 않고 순번만 찍어 둔다.
+ * 항목마다 읽기 시작한 순번이 있어서, 그 뒤에 무효화된 사물함을 가리키는 항목은 꺼낼 때 다시 읽는다.
+ * 무효화와 동시에 진행 중이던 읽기가 옛 값을 넣어도 같은 방법으로 걸러진다.
+ */
+@Component
+public class LatestApplicationCache {
+
+    /**
+     * 캐시에 담는 최신 신청 요약.
+     *
+     * @param lockerHeld 읽은 시점에 그 사물함이 AVAILABLE이 아니었는지(비워진 사물함의 옛 기록 구분용)
+     */
+    public record Entry(
+            long id,
+            String studentId,
+            Application.Status status,
+            int lockerNumber,
+            String lookupCodeHash,
+            boolean lockerHeld
+    ) {}
+
+    // 캐시 값: 최신 신청(없으면 empty) + 읽기 시작할 때의 무효화 순번
+    private record Cached(Optional<Entry> entry, long loadedSeq) {}
+
+    private final ApplicationRepository appRepo;
+    private final LockerRepository lockerRepo;
+
+    // 신청이 없는 학번도 Optional.empty()로 담아서 반복 조회를 막음
+    private final Cache<String, Cached> cache;
+
+    // 무효화 순번. 사물함별/전체 무효화 시점을 이 값으로 기록
+    private final AtomicLong seq = new AtomicLong();
+    private final Map<Integer, Long> lockerInvalidatedAt = new ConcurrentHashMap<>();
+    private volatile long allInvalidatedAt = 0;
+
+    public LatestApplicationCache(ApplicationRepository appRepo, LockerRepository lockerRepo,
+                                  LookupCacheProperties props, MeterRegistry meters) {
+        this.appRepo = appRepo;
+        this.lockerRepo = lockerRepo;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.maximumSize())
+                .expireAfterWrite(props.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meters, cache, "latest_application");
+    }
+
+    public Optional<Entry> get(String studentId) {
+        Cached c = cache.get(studentId, this::load);
+        if (isStale(c)) {
+            // 읽은 뒤 그 사물함(또는 전체)이 무효화됨: 한 번 다시 읽음
+            cache.asMap().remove(studentId, c);
+            c = cache.get(studentId, this::load);
+        }
+        return c.entry();
+    }
+
+    private Cached load(String studentId) {
+        // 순번은 DB를 읽기 전에 잡아야 읽는 도중의 무효화가 걸러짐
+        long startedAt = seq.get();
+        return new Cached(appRepo.findTopByStudentIdOrderByIdDesc(studentId).map(this::toEntry), startedAt);
+    }
+
+    private boolean isStale(Cached c) {
+        if (c.loadedSeq() < allInvalidatedAt) return true;
+        if (c.entry().isEmpty()) return false;
+        Long at = lockerInvalidatedAt.get(c.entry().get().lockerNumber());
+        return at != null && c.loadedSeq() < at;
+    }
+
+    public Entry toEntry(Application app) {
+        boolean held = lockerRepo.findById(app.getLockerNumber())
+                .map(l -> l.getState() != Locker.State.AVAILABLE)
+                .orElse(false);
+        return new Entry(app.getId(), app.getStudentId(), app.getStatus(), app.getLockerNumber(),
+                app.getLookupCodeHash(), held);
+    }
+
+    public void invalidate(String studentId) {
+        if (studentId == null) return;
+        cache.invalidate(studentId);
+        afterCompletion(() -> cache.invalidate(studentId));
+    }
+
+    public void invalidateLocker(int lockerNumber) {
+        // 학번을 모를 때(사물함 번호로 비우기): 그 사물함을 가리키는 항목은 꺼낼 때 다시 읽게 함
+        Runnable mark = () -> markLocker(lockerNumber);
+        mark.run();
+        afterCompletion(mark);
+    }
+
+    public void invalidateAll() {
+        clearAll();
+        afterCompletion(this::clearAll);
+    }
+
+    private void markLocker(int lockerNumber) {
+        lockerInvalidatedAt.put(lockerNumber, seq.incrementAndGet());
+    }
+
+    private void clearAll() {
+        allInvalidatedAt = seq.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @EventListener
+    public void onLockerChange(LockerChangeEvent event) {
+        // 어느 서버에서 커밋됐든 같은 이벤트가 옴(이 서버의 변경은 이미 지웠지만 한 번 더 지워도 무해)
+        // 커밋한 요청 스레드에서 돌 수 있으므로 캐시를 훑지 않음(변경마다 O(1))
+        if (event.reset()) {
+            clearAll();
+            return;
+        }
+
+        for (LockerChange c : event.changes()) {
+            if (c.studentId() != null) cache.invalidate(c.studentId());
+            // 반려/비우기/반납은 학번 없이 옴: 그 사물함을 가리키는 항목은 꺼낼 때 다시 읽음
+            markLocker(c.lockerNumber());
+        }
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
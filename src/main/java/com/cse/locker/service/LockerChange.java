@@ -0,0 +1,26 @@
+package com.cse.locker.service;
+
+/**
+ * 커밋된 사물함 변경 한 건. SSE로 그대로 내려가서 화면이 전체를 다시 읽지 않고 해당 칸만 고친다.
+ *
+ * @param type          APPLIED / ASSIGNED / APPROVED / REJECTED / CLEARED / EMPTIED / PROMOTED(대기 배정)
+ * @param lockerNumber  바뀐 사물함 번호
+ * @param state         변경 후 사물함 상태(AVAILABLE / RESERVED / APPROVED)
+ * @param studentId     변경 후 사물함을 잡고 있는 학번(없으면 null)
+ * @param applicationId 관련 신청 ID(없으면 null)
+ * @param name          새 대기 신청(APPLIED/PROMOTED)일 때만(관리자 대기 목록 표시용)
+ * @param phone         새 대기 신청(APPLIED/PROMOTED)일 때만
+ */
+public record LockerChange(
+        String type,
+        int lockerNumber,
+        String state,
+        String studentId,
+        Long applicationId,
+        String name,
+        String phone
+) {
+    public static LockerChange of(String type, int lockerNumber, String state, String studentId, Long applicationId) {
+        return new LockerChange(type, lockerNumber, state, studentId, applicationId, null, null);
+    }
+}
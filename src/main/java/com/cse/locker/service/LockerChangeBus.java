@@ -0,0 +1,14 @@
+package com.cse.locker.service;
+
+/**
+ * 커밋된 사물함 변경을 모든 서버에 전달하는 통로.
+ *
+ * 구현은 이 서버에서 난 변경이든 다른 서버에서 온 변경이든 똑같이
+ * 그리드 스냅샷 재구성을 예약하고 LockerChangeEvent를 로컬에 발행해야 한다.
+ * SSE 컨트롤러는 로컬 이벤트만 듣고 자기 구독자에게 내보낸다.
+ */
+public interface LockerChangeBus {
+
+    /** 이 서버에서 커밋된 변경. 커밋 이후(afterCommit)에 호출된다. */
+    void publish(LockerChangeEvent event);
+}
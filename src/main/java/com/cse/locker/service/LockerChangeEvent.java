@@ -0,0 +1,15 @@
+package com.cse.locker.service;
+
+import java.util.List;
+
+/**
+ * 트랜잭션 하나가 커밋되면서 생긴 변경 묶음. 커밋 이후에 한 번만 발행된다.
+ *
+ * @param changes 변경 목록(순서대로)
+ * @param reset   전체 초기화처럼 칸 단위로 표현하지 않는 변경이면 true(받는 쪽은 전체를 다시 읽음)
+ */
+public record LockerChangeEvent(List<LockerChange> changes, boolean reset) {
+    public LockerChangeEvent {
+        changes = List.copyOf(changes);
+    }
+}
@@ -0,0 +1,72 @@
+package com.cse.locker.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 트랜잭션 안에서 생긴 사물함 변경을 모아뒀다가 커밋이 끝난 뒤에
+ * LockerChangeBus로 한 번만 내보낸다(그리드 재구성 예약 + 모든 서버에 LockerChangeEvent 발행).
+ * 롤백되면 아무것도 나가지 않는다.
+ */
+@Component
+public class LockerChangeRecorder {
+
+    // 트랜잭션마다 바인딩되는 변경 목록의 키
+    private static final Object RESOURCE_KEY = new Object();
+
+    private static final class Pending {
+        final List<LockerChange> changes = new ArrayList<>();
+        boolean reset;
+    }
+
+    private final LockerChangeBus bus;
+
+    public LockerChangeRecorder(LockerChangeBus bus) {
+        this.bus = bus;
+    }
+
+    public void record(LockerChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 트랜잭션 밖이면 이미 반영된 것이므로 바로 내보냄
+            publish(List.of(change), false);
+            return;
+        }
+        current().changes.add(change);
+    }
+
+    public void recordReset() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(List.of(), true);
+            return;
+        }
+        current().reset = true;
+    }
+
+    private void publish(List<LockerChange> changes, boolean reset) {
+        bus.publish(new LockerChangeEvent(changes, reset));
+    }
+
+    private Pending current() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+        if (pending != null) return pending;
+
+        Pending created = new Pending();
+        TransactionSynchronizationManager.bindResource(RESOURCE_KEY, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(created.changes, created.reset);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+            }
+        });
+        return created;
+    }
+}
@@ -0,0 +1,127 @@
+package com.cse.locker.service;
+
+import com.cse.locker.config.LockerProperties;
+import com.cse.locker.domain.Locker;
+import com.cse.locker.repo.LockerRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 사물함 그리드의 불변 스냅샷을 메모리에 들고 있는 캐시.
+ * 조회는 DB를 전혀 타지 않고, 변경이 커밋될 때마다 한 번씩만 다시 만든다.
+ *
+ * 재구성은 전용 스레드 하나에서만 돌린다. 커밋한 요청 스레드가 자기 커넥션을 쥔 채로
+ * 두 번째 커넥션을 기다리면 몰리는 시간대에 풀이 바닥나기 때문.
+ * 재구성이 돌고 있는 동안 들어온 커밋들은 다음 한 번의 재구성으로 합쳐진다.
+ */
+@Component
+public class LockerGridCache {
+
+    /**
+     * 한 시점의 그리드 상태.
+     *
+     * @param version 이 서버 안에서만 단조 증가(재시작하면 0부터, 서버마다 따로)
+     * @param etag    내용(번호/상태/학번)의 해시. 재시작이나 로드밸런서 뒤에서도 내용이 같을 때만 같음
+     */
+    public record Snapshot(long version, String etag, List<LockerService.LockerDto> lockers) {}
+
+    private static final Logger log = LoggerFactory.getLogger(LockerGridCache.class);
+
+    private final LockerRepository lockerRepo;
+    private final LockerProperties inventory;
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "locker-grid-rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean(false);
+
+    private volatile Snapshot current = new Snapshot(0L, etagOf(List.of()), List.of());
+
+    public LockerGridCache(LockerRepository lockerRepo, LockerProperties inventory) {
+        this.lockerRepo = lockerRepo;
+        this.inventory = inventory;
+    }
+
+    public Snapshot current() {
+        return current;
+    }
+
+    public long version() {
+        return current.version();
+    }
+
+    public void requestRebuild() {
+        // 이미 대기 중인 재구성이 있으면 그걸로 충분
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(this::runQueuedRebuild);
+        }
+    }
+
+    private void runQueuedRebuild() {
+        // 읽기 전에 플래그를 내려야, 읽는 도중 커밋된 변경이 재구성을 다시 예약함
+        rebuildQueued.set(false);
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("사물함 그리드 스냅샷 재구성 실패", e);
+        }
+    }
+
+    public synchronized Snapshot rebuild() {
+        // 락 안에서 읽어야 늦게 끝난 재구성이 더 오래된 상태로 덮어쓰지 않음
+        List<LockerService.LockerDto> out = new ArrayList<>(inventory.totalCount());
+        for (Locker l : lockerRepo.findAll(Sort.by("lockerNumber"))) {
+            // 설정에서 빠진 뱅크의 row는 DB에 남아 있어도 그리드에 내보내지 않음
+            if (!inventory.contains(l.getLockerNumber())) continue;
+
+            String status = l.getState().name();
+            if ("RESERVED".equals(status)) status = "PENDING"; // UI 표시용 변환
+
+            out.add(new LockerService.LockerDto(
+                    l.getLockerNumber(),
+                    status,
+                    l.getReservedStudentId()
+            ));
+        }
+
+        Snapshot next = new Snapshot(current.version() + 1, etagOf(out), List.copyOf(out));
+        current = next;
+        return next;
+    }
+
+    private static String etagOf(List<LockerService.LockerDto> lockers) {
+        // 재구성 때 한 번만 계산(사물함 수천 개여도 1ms 안쪽)
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (LockerService.LockerDto l : lockers) {
+            md.update((l.lockerNumber() + "|" + l.state() + "|" + l.studentId() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] digest = Arrays.copyOf(md.digest(), 16);
+        return "\"grid-" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
@@ -1,44 +1,103 @@
 package com.cse.locker.service;
 
+import com.cse.locker.config.LockerProperties;
 import com.cse.locker.domain.Application;
 import com.cse.locker.domain.Locker;
 import com.cse.locker.repo.ApplicationRepository;
+import com.cse.locker.repo.LockerJdbcRepository;
 import com.cse.locker.repo.LockerRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+// public 메서드마다 locker.service 타이머(class/method 태그, p99용 히스토그램)
 @Service
+@Timed(value = "locker.service", histogram = true)
 public class LockerService {
 
-    private static final int LOCKER_MIN = 1;
-    private static final int LOCKER_MAX = 50;
+    // 일괄 승인/거절 한 번에 받는 최대 건수
+    private static final int BULK_LIMIT = 1000;
 
     private final LockerRepository lockerRepo;
+    private final LockerJdbcRepository lockerJdbc;
     private final ApplicationRepository appRepo;
-    private final PasswordEncoder passwordEncoder;
+    private final LookupCodeHasher hasher;
+    private final LockerGridCache gridCache;
+    private final LockerProperties inventory;
+    private final LookupTokenService lookupTokens;
+    private final LockerChangeRecorder changes;
+    private final LatestApplicationCache latestApps;
+    private final WaitlistService waitlist;
+    // 신청/직권 배정은 해시를 먼저 계산한 뒤 트랜잭션을 직접 염
+    private final TransactionTemplate tx;
+
+    // 본인 확인 소요 시간(토큰 경로 / 확인코드 경로)
+    private final Timer lookupByToken;
+    private final Timer lookupByCode;
 
     private final SecureRandom random = new SecureRandom();
 
-    public LockerService(LockerRepository lockerRepo, ApplicationRepository appRepo, PasswordEncoder passwordEncoder) {
+    public LockerService(LockerRepository lockerRepo, LockerJdbcRepository lockerJdbc, ApplicationRepository appRepo,
+                         LookupCodeHasher hasher, LockerGridCache gridCache, LockerProperties inventory,
+                         LookupTokenService lookupTokens, LockerChangeRecorder changes,
+                         LatestApplicationCache latestApps, WaitlistService waitlist,
+                         PlatformTransactionManager txManager, MeterRegistry meters) {
         this.lockerRepo = lockerRepo;
+        this.lockerJdbc = lockerJdbc;
         this.appRepo = appRepo;
-        this.passwordEncoder = passwordEncoder;
+        this.hasher = hasher;
+        this.gridCache = gridCache;
+        this.inventory = inventory;
+        this.lookupTokens = lookupTokens;
+        this.changes = changes;
+        this.latestApps = latestApps;
+        this.waitlist = waitlist;
+        this.tx = new TransactionTemplate(txManager);
+        this.lookupByToken = lookupTimer(meters, "token");
+        this.lookupByCode = lookupTimer(meters, "code");
+    }
+
+    private static Timer lookupTimer(MeterRegistry meters, String via) {
+        return Timer.builder("locker.lookup.verify")
+                .description("학번+확인코드(또는 조회 토큰) 본인 확인 시간")
+                .tag("via", via)
+                .publishPercentileHistogram()
+                .register(meters);
     }
 
     public record LockerDto(int lockerNumber, String state, String studentId) {}
-    public record PendingDto(long id, String studentId, String name, String phone, int lockerNumber) {}
+    // 조회 결과를 바로 담는 projection이라 생성자 타입이 엔티티 필드 타입과 같아야 함(id는 Long)
+    public record PendingDto(Long id, String studentId, String name, String phone, int lockerNumber) {}
 
     public record MyStatusDto(
             String studentId,
             String status,        // NONE / PENDING / APPROVED
             Integer lockerNumber, // 없으면 null
-            String message
+            String message,
+            String token          // 이후 조회에 쓸 서명 토큰(확인코드 대신)
+    ) {}
+
+    // 일괄 승인/거절의 건별 결과
+    public record BulkItemResult(
+            long applicationId,
+            boolean ok,
+            Integer lockerNumber, // 없는 신청이면 null
+            String message        // 실패 사유(성공이면 null)
     ) {}
 
     public record MyLockerDto(
@@ -48,38 +107,27 @@ public class LockerService {
             String name,
             String phone,
             Integer lockerNumber,
-            String memo
+            String memo,
+            String token
     ) {}
 
     @PostConstruct
-    @Transactional
     public void initLockers() {
-        // 서버 시작 시 1..50 사물함 row가 없으면 생성
-        for (int i = LOCKER_MIN; i <= LOCKER_MAX; i++) {
-            final int n = i;
-            lockerRepo.findById(n).orElseGet(() -> lockerRepo.save(new Locker(n)));
-        }
+        // 서버 시작 시 설정된 뱅크의 사물함 row 중 없는 것만 배치 INSERT
+        lockerJdbc.insertMissing(inventory);
+
+        // 첫 조회 전에 스냅샷을 만들어 둠
+        gridCache.rebuild();
     }
 
-    @Transactional(readOnly = true)
     public List<LockerDto> getLockerGrid() {
-        // 1..50 전체를 조회해서 프론트에 보여줄 상태 그리드 생성
-        List<LockerDto> out = new ArrayList<>();
-        for (int i = LOCKER_MIN; i <= LOCKER_MAX; i++) {
-            final int n = i;
-            Locker l = lockerRepo.findById(n)
-                    .orElseThrow(() -> new IllegalArgumentException("없는 사물함: " + n));
-
-            String status = l.getState().name();
-            if ("RESERVED".equals(status)) status = "PENDING"; // UI 표시용 변환
-
-            out.add(new LockerDto(
-                    l.getLockerNumber(),
-                    status,
-                    l.getReservedStudentId()
-            ));
-        }
-        return out;
+        // 메모리 스냅샷을 그대로 반환(DB 조회 없음)
+        return gridCache.current().lockers();
+    }
+
+    public LockerGridCache.Snapshot getLockerGridSnapshot() {
+        // ETag 응답용: 버전까지 같이 필요할 때
+        return gridCache.current();
     }
 
     private String generateLookupCode() {
@@ -88,7 +136,7 @@ public class LockerService {
         return String.valueOf(v);
     }
 
-    private Application requireValidLookup(String studentId, String code) {
+    private LatestApplicationCache.Entry requireValidLookup(String studentId, String code) {
         // 최신 신청 1건 기준으로 학번+확인코드(해시) 검증
         if (studentId == null || studentId.trim().isEmpty()) {
             throw new IllegalArgumentException("학번이 비었습니다.");
@@ -97,111 +145,184 @@ public class LockerService {
             throw new IllegalArgumentException("확인코드를 입력해주세요.");
         }
 
-        Application app = appRepo.findTopByStudentIdOrderByIdDesc(studentId.trim())
+        // 최신 신청은 캐시에서(처음 한 번만 DB)
+        LatestApplicationCache.Entry app = latestApps.get(studentId.trim())
                 .orElseThrow(() -> new IllegalStateException("학번 또는 확인코드가 올바르지 않습니다."));
 
-        if (app.getLookupCodeHash() == null || app.getLookupCodeHash().isBlank()) {
+        if (app.lookupCodeHash() == null || app.lookupCodeHash().isBlank()) {
             throw new IllegalStateException("확인코드가 설정되어 있지 않습니다. 다시 신청해주세요.");
         }
 
-        boolean ok = passwordEncoder.matches(code.trim(), app.getLookupCodeHash());
+        boolean ok = hasher.matches(code.trim(), app.lookupCodeHash());
         if (!ok) {
             throw new IllegalStateException("학번 또는 확인코드가 올바르지 않습니다.");
         }
+
+        // 예전 방식/비용의 해시면 맞는 코드를 알고 있는 지금 새 설정으로 바꿔 둠
+        if (hasher.needsRehash(app.lookupCodeHash())) {
+            String oldHash = app.lookupCodeHash();
+            hasher.rehashLater(code.trim(), newHash -> {
+                if (appRepo.replaceLookupCodeHash(app.id(), oldHash, newHash) > 0) {
+                    latestApps.invalidate(app.studentId());
+                }
+            });
+        }
         return app;
     }
 
+    private LatestApplicationCache.Entry requireLookup(String studentId, String code, LookupTokenService.Claims claims) {
+        // 유효한 토큰이 있으면(컨트롤러가 이미 HMAC 확인) BCrypt 없음, 없거나 만료됐으면 확인코드로 검증
+        if (claims == null) {
+            return lookupByCode.record(() -> requireValidLookup(studentId, code));
+        }
+        return lookupByToken.record(() -> requireTokenLookup(studentId, claims));
+    }
+
+    private LatestApplicationCache.Entry requireTokenLookup(String studentId, LookupTokenService.Claims claims) {
+        if (studentId != null && !studentId.isBlank() && !claims.studentId().equals(studentId.trim())) {
+            throw new IllegalStateException("학번 또는 확인코드가 올바르지 않습니다.");
+        }
+
+        // 보통은 토큰의 신청이 곧 최신 신청이라 캐시로 끝남
+        LatestApplicationCache.Entry latest = latestApps.get(claims.studentId()).orElse(null);
+        if (latest != null && latest.id() == claims.applicationId()) {
+            return latest;
+        }
+
+        Application app = appRepo.findById(claims.applicationId())
+                .orElseThrow(() -> new IllegalStateException("신청 정보가 없습니다. 다시 조회해주세요."));
+        if (!app.getStudentId().equals(claims.studentId())) {
+            throw new IllegalStateException("학번 또는 확인코드가 올바르지 않습니다.");
+        }
+        return latestApps.toEntry(app);
+    }
+
+    private Application requireApplication(LatestApplicationCache.Entry entry) {
+        // 캐시에 없는 컬럼(이름/전화/메모)이 필요하거나 수정할 때만 엔티티를 읽음
+        return appRepo.findById(entry.id())
+                .orElseThrow(() -> new IllegalStateException("신청 정보가 없습니다. 다시 조회해주세요."));
+    }
+
+    private String issueToken(LatestApplicationCache.Entry app, LookupTokenService.Claims claims) {
+        // 확인코드로 검증했을 때만 만료 시각이 새로 정해짐
+        if (claims == null) return lookupTokens.issue(app.id(), app.studentId());
+        return lookupTokens.renew(app.id(), app.studentId(), claims);
+    }
+
     private void preventDuplicateApply(String studentId) {
         // 같은 학번이 이미 PENDING/APPROVED면 중복 신청 방지
-        var opt = appRepo.findTopByStudentIdOrderByIdDesc(studentId);
+        var opt = latestApps.get(studentId);
         if (opt.isEmpty()) return;
 
-        Application last = opt.get();
+        LatestApplicationCache.Entry last = opt.get();
 
         // 사물함이 AVAILABLE이면 과거 기록으로 보고 허용(방어 로직)
-        Locker locker = lockerRepo.findById(last.getLockerNumber()).orElse(null);
-        boolean stillUsing = locker != null && locker.getState() != Locker.State.AVAILABLE;
+        boolean stillUsing = last.lockerHeld();
 
-        if (stillUsing && (last.getStatus() == Application.Status.PENDING || last.getStatus() == Application.Status.APPROVED)) {
+        if (stillUsing && (last.status() == Application.Status.PENDING || last.status() == Application.Status.APPROVED)) {
             throw new IllegalStateException("이미 신청 또는 사용 중인 사물함이 있습니다. (중복 신청 불가)");
         }
     }
 
-    @Transactional
-    public String apply(String studentId, String name, String phone, int lockerNumber) {
-        // 학생 신청: AVAILABLE 사물함을 RESERVED로 바꾸고, 확인코드를 1회 반환
-        studentId = studentId.trim();
-        name = name.trim();
-        phone = phone.trim();
+    private void requireConfiguredLocker(int lockerNumber) {
+        // 설정에서 빠진 뱅크의 row는 DB에 AVAILABLE로 남아 있어도 신청/지정 불가(그리드에도 안 보임)
+        if (!inventory.contains(lockerNumber)) {
+            throw new IllegalArgumentException("없는 사물함: " + lockerNumber);
+        }
+    }
 
-        preventDuplicateApply(studentId);
+    private void reserveAvailable(int lockerNumber, Locker.State next, String studentId, String takenMessage) {
+        // AVAILABLE -> next 를 조건부 UPDATE 한 번으로 처리
+        int updated;
+        try {
+            updated = lockerRepo.compareAndSetState(lockerNumber, Locker.State.AVAILABLE, next, studentId);
+        } catch (DataIntegrityViolationException e) {
+            // 같은 학번이 다른 사물함을 동시에 잡은 경우(reserved_student_id 유니크 제약)
+            throw new IllegalStateException("이미 신청 또는 사용 중인 사물함이 있습니다. (중복 신청 불가)");
+        }
 
-        Locker locker = lockerRepo.findById(lockerNumber)
-                .orElseThrow(() -> new IllegalArgumentException("없는 사물함: " + lockerNumber));
+        if (updated == 0) {
+            if (!lockerRepo.existsById(lockerNumber)) {
+                throw new IllegalArgumentException("없는 사물함: " + lockerNumber);
+            }
+            throw new IllegalStateException(takenMessage);
+        }
+    }
 
-        if (locker.getState() != Locker.State.AVAILABLE) {
-            throw new IllegalStateException("이미 예약/사용 중인 사물함입니다.");
+    /**
+     * 사물함 선점(조건부 UPDATE)만 짧은 트랜잭션으로 먼저 커밋하고, 해시는 락/커넥션 없이 계산한 뒤
+     * 신청을 저장한다. 경쟁에서 진 요청은 UPDATE 한 번으로 끝나고 BCrypt를 돌지 않는다.
+     * 해시나 저장이 실패하면 선점을 되돌린다(그 사이 초기화 등으로 바뀌었으면 건드리지 않음).
+     */
+    private String claimThenRecord(String studentId, int lockerNumber, Locker.State held, String takenMessage,
+                                   Application app, Function<Application, LockerChange> change) {
+        // 1) 선점: AVAILABLE -> held. 진 요청은 여기서 바로 실패
+        tx.executeWithoutResult(status -> reserveAvailable(lockerNumber, held, studentId, takenMessage));
+
+        try {
+            // 2) 해시: 사물함 row 락도 DB 커넥션도 잡지 않은 상태
+            String code = generateLookupCode();
+            app.setLookupCodeHash(hasher.encode(code));
+
+            // 3) 신청 저장. 선점 뒤 전체 초기화 등으로 사물함을 잃었으면 저장하지 않음
+            tx.executeWithoutResult(status -> {
+                Locker locker = lockerRepo.findById(lockerNumber).orElse(null);
+                if (locker == null || locker.getState() != held || !studentId.equals(locker.getReservedStudentId())) {
+                    throw new IllegalStateException("신청 처리 중 사물함 상태가 바뀌었습니다. 다시 신청해주세요.");
+                }
+                appRepo.save(app);
+                latestApps.invalidate(studentId);
+                waitlist.dropStudent(studentId);
+                changes.record(change.apply(app));
+            });
+            return code;
+        } catch (RuntimeException e) {
+            releaseClaim(lockerNumber, held, studentId);
+            throw e;
         }
+    }
 
-        String code = generateLookupCode();
-        String hash = passwordEncoder.encode(code);
+    private void releaseClaim(int lockerNumber, Locker.State held, String studentId) {
+        // 선점만 커밋된 채 남지 않게 되돌리고, 그 사이 대기 명단이 생겼으면 대기 1번에게
+        tx.executeWithoutResult(status -> {
+            if (lockerRepo.releaseClaim(lockerNumber, held, studentId, Locker.State.AVAILABLE) > 0) {
+                waitlist.promoteInto(lockerNumber);
+            }
+        });
+    }
 
-        Application app = new Application(studentId, name, phone, lockerNumber, Application.Status.PENDING);
-        app.setLookupCodeHash(hash);
-        appRepo.save(app);
+    public String apply(String studentId, String name, String phone, int lockerNumber) {
+        // 학생 신청: AVAILABLE 사물함을 RESERVED로 바꾸고, 확인코드를 1회 반환
+        String sid = studentId.trim();
+        String n = name.trim();
+        String p = phone.trim();
 
-        locker.setState(Locker.State.RESERVED);
-        locker.setReservedStudentId(studentId);
-        lockerRepo.save(locker);
+        requireConfiguredLocker(lockerNumber);
+        preventDuplicateApply(sid);
 
-        return code;
+        return claimThenRecord(sid, lockerNumber, Locker.State.RESERVED, "이미 예약/사용 중인 사물함입니다.",
+                new Application(sid, n, p, lockerNumber, Application.Status.PENDING),
+                app -> new LockerChange("APPLIED", lockerNumber, Locker.State.RESERVED.name(), sid, app.getId(), n, p));
     }
 
-    @Transactional
     public String adminAssignApproved(String studentId, String name, String phone, int lockerNumber) {
         // 관리자 직권 승인: AVAILABLE 사물함에 사용자를 지정하고 즉시 APPROVED 처리
-        studentId = studentId.trim();
-        name = name.trim();
-        phone = phone.trim();
-
-        preventDuplicateApply(studentId);
-
-        Locker locker = lockerRepo.findById(lockerNumber)
-                .orElseThrow(() -> new IllegalArgumentException("없는 사물함: " + lockerNumber));
-
-        if (locker.getState() != Locker.State.AVAILABLE) {
-            throw new IllegalStateException("비어있는(AVAILABLE) 사물함만 지정할 수 있습니다.");
-        }
-
-        String code = generateLookupCode();
-        String hash = passwordEncoder.encode(code);
-
-        Application app = new Application(studentId, name, phone, lockerNumber, Application.Status.APPROVED);
-        app.setLookupCodeHash(hash);
-        appRepo.save(app);
+        String sid = studentId.trim();
+        String n = name.trim();
+        String p = phone.trim();
 
-        locker.setState(Locker.State.APPROVED);
-        locker.setReservedStudentId(studentId);
-        lockerRepo.save(locker);
+        requireConfiguredLocker(lockerNumber);
+        preventDuplicateApply(sid);
 
-        return code;
+        return claimThenRecord(sid, lockerNumber, Locker.State.APPROVED, "비어있는(AVAILABLE) 사물함만 지정할 수 있습니다.",
+                new Application(sid, n, p, lockerNumber, Application.Status.APPROVED),
+                app -> LockerChange.of("ASSIGNED", lockerNumber, Locker.State.APPROVED.name(), sid, app.getId()));
     }
 
     @Transactional(readOnly = true)
     public List<PendingDto> getPendingList() {
-        // 관리자: 대기(PENDING) 신청 목록
-        List<Application> list = appRepo.findByStatus(Application.Status.PENDING);
-        List<PendingDto> out = new ArrayList<>();
-        for (Application a : list) {
-            out.add(new PendingDto(
-                    a.getId(),
-                    a.getStudentId(),
-                    a.getName(),
-                    a.getPhone(),
-                    a.getLockerNumber()
-            ));
-        }
-        return out;
+        // 관리자: 대기(PENDING) 신청 목록(다섯 컬럼만 읽어서 바로 PendingDto로)
+        return appRepo.findByStatusOrderByIdAsc(Application.Status.PENDING, PendingDto.class);
     }
 
     @Transactional
@@ -226,6 +347,10 @@ public class LockerService {
 
         locker.setState(Locker.State.APPROVED);
         lockerRepo.save(locker);
+        latestApps.invalidate(app.getStudentId());
+
+        changes.record(LockerChange.of("APPROVED", locker.getLockerNumber(), Locker.State.APPROVED.name(),
+                locker.getReservedStudentId(), app.getId()));
     }
 
     @Transactional
@@ -238,96 +363,231 @@ public class LockerService {
                 .orElseThrow(() -> new IllegalArgumentException("없는 사물함: " + app.getLockerNumber()));
 
         appRepo.delete(app);
+        latestApps.invalidate(app.getStudentId());
 
-        if (locker.getState() == Locker.State.RESERVED) {
+        boolean freed = locker.getState() == Locker.State.RESERVED;
+        if (freed) {
             locker.setState(Locker.State.AVAILABLE);
             locker.setReservedStudentId(null);
             lockerRepo.save(locker);
         }
+
+        changes.record(LockerChange.of("REJECTED", locker.getLockerNumber(), locker.getState().name(),
+                locker.getReservedStudentId(), app.getId()));
+
+        // 비워진 사물함은 같은 트랜잭션에서 대기 1번에게
+        if (freed) waitlist.promoteInto(locker.getLockerNumber());
+    }
+
+    @Transactional
+    public List<BulkItemResult> approveAll(List<Long> applicationIds) {
+        // 관리자: 여러 대기 신청을 한 트랜잭션에서 승인(건별 검사는 approve와 동일, 실패한 건만 건너뜀)
+        Set<Long> ids = requireBulkIds(applicationIds);
+        Map<Long, Application> apps = loadApplications(ids);
+        Map<Integer, Locker> lockers = loadLockers(apps.values());
+
+        List<BulkItemResult> out = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Application app = apps.get(id);
+            if (app == null) {
+                out.add(new BulkItemResult(id, false, null, "없는 신청: " + id));
+                continue;
+            }
+            if (app.getStatus() != Application.Status.PENDING) {
+                out.add(new BulkItemResult(id, false, app.getLockerNumber(), "대기 신청만 승인할 수 있습니다."));
+                continue;
+            }
+            Locker locker = lockers.get(app.getLockerNumber());
+            if (locker == null) {
+                out.add(new BulkItemResult(id, false, app.getLockerNumber(), "없는 사물함: " + app.getLockerNumber()));
+                continue;
+            }
+            if (locker.getState() != Locker.State.RESERVED) {
+                out.add(new BulkItemResult(id, false, app.getLockerNumber(), "사물함 상태가 RESERVED가 아닙니다."));
+                continue;
+            }
+
+            // 변경 감지로 커밋 때 한 번에 flush(hibernate.jdbc.batch_size 단위 JDBC 배치 UPDATE)
+            app.setStatus(Application.Status.APPROVED);
+            locker.setState(Locker.State.APPROVED);
+            latestApps.invalidate(app.getStudentId());
+
+            changes.record(LockerChange.of("APPROVED", locker.getLockerNumber(), Locker.State.APPROVED.name(),
+                    locker.getReservedStudentId(), app.getId()));
+            out.add(new BulkItemResult(id, true, app.getLockerNumber(), null));
+        }
+        return out;
+    }
+
+    @Transactional
+    public List<BulkItemResult> rejectAll(List<Long> applicationIds) {
+        // 관리자: 여러 신청을 한 트랜잭션에서 반려(신청 삭제, RESERVED였던 사물함은 AVAILABLE로)
+        Set<Long> ids = requireBulkIds(applicationIds);
+        Map<Long, Application> apps = loadApplications(ids);
+        Map<Integer, Locker> lockers = loadLockers(apps.values());
+
+        List<BulkItemResult> out = new ArrayList<>(ids.size());
+        List<Long> toDelete = new ArrayList<>();
+        List<Integer> freed = new ArrayList<>();
+        for (Long id : ids) {
+            Application app = apps.get(id);
+            if (app == null) {
+                out.add(new BulkItemResult(id, false, null, "없는 신청: " + id));
+                continue;
+            }
+            Locker locker = lockers.get(app.getLockerNumber());
+            if (locker == null) {
+                out.add(new BulkItemResult(id, false, app.getLockerNumber(), "없는 사물함: " + app.getLockerNumber()));
+                continue;
+            }
+
+            toDelete.add(app.getId());
+            latestApps.invalidate(app.getStudentId());
+            if (locker.getState() == Locker.State.RESERVED) {
+                locker.setState(Locker.State.AVAILABLE);
+                locker.setReservedStudentId(null);
+                freed.add(locker.getLockerNumber());
+            }
+
+            changes.record(LockerChange.of("REJECTED", locker.getLockerNumber(), locker.getState().name(),
+                    locker.getReservedStudentId(), app.getId()));
+            out.add(new BulkItemResult(id, true, app.getLockerNumber(), null));
+        }
+
+        // 삭제는 DELETE 한 번(where id in ...)
+        if (!toDelete.isEmpty()) appRepo.deleteAllByIdInBatch(toDelete);
+
+        // 대기 배정은 루프가 끝난 뒤에(배정의 조건부 UPDATE가 영속성 컨텍스트를 비우므로)
+        // false는 대기가 비었다는 뜻이라 멈춤(설정에서 빠진 사물함은 건너뜀)
+        for (int lockerNumber : freed) {
+            if (!inventory.contains(lockerNumber)) continue;
+            if (!waitlist.promoteInto(lockerNumber)) break;
+        }
+        return out;
+    }
+
+    private static Set<Long> requireBulkIds(List<Long> applicationIds) {
+        if (applicationIds == null || applicationIds.isEmpty()) {
+            throw new IllegalArgumentException("처리할 신청을 선택하세요.");
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Long id : applicationIds) {
+            if (id != null) ids.add(id);
+        }
+        if (ids.size() > BULK_LIMIT) {
+            throw new IllegalArgumentException("한 번에 최대 " + BULK_LIMIT + "건까지 처리할 수 있습니다.");
+        }
+        return ids;
+    }
+
+    private Map<Long, Application> loadApplications(Set<Long> ids) {
+        // 신청/사물함을 건마다 찾지 않고 IN 조회 한 번씩
+        return appRepo.findAllById(ids).stream()
+                .collect(Collectors.toMap(Application::getId, Function.identity()));
+    }
+
+    private Map<Integer, Locker> loadLockers(Iterable<Application> apps) {
+        Set<Integer> numbers = new LinkedHashSet<>();
+        for (Application a : apps) numbers.add(a.getLockerNumber());
+        return lockerRepo.findAllById(numbers).stream()
+                .collect(Collectors.toMap(Locker::getLockerNumber, Function.identity()));
     }
 
     @Transactional
     public void clearApprovedLocker(int lockerNumber) {
         // 관리자: 승인된 사물함 비우기(신청 기록 삭제 + 사물함 AVAILABLE)
-        Locker locker = lockerRepo.findById(lockerNumber)
-                .orElseThrow(() -> new IllegalArgumentException("없는 사물함: " + lockerNumber));
-
-        if (locker.getState() != Locker.State.APPROVED) {
+        // 상태 확인과 변경을 UPDATE 한 번으로(APPROVED일 때만 바뀜)
+        int updated = lockerRepo.compareAndSetState(lockerNumber, Locker.State.APPROVED, Locker.State.AVAILABLE, null);
+        if (updated == 0) {
+            if (!lockerRepo.existsById(lockerNumber)) {
+                throw new IllegalArgumentException("없는 사물함: " + lockerNumber);
+            }
             throw new IllegalStateException("승인된 사물함만 비울 수 있습니다.");
         }
 
         appRepo.deleteByLockerNumber(lockerNumber);
+        latestApps.invalidateLocker(lockerNumber);
 
-        locker.setState(Locker.State.AVAILABLE);
-        locker.setReservedStudentId(null);
-        lockerRepo.save(locker);
+        changes.record(LockerChange.of("CLEARED", lockerNumber, Locker.State.AVAILABLE.name(), null, null));
+        waitlist.promoteInto(lockerNumber);
     }
 
     @Transactional
     public void resetAll() {
         // 관리자: 전체 초기화(신청 전체 삭제 + 모든 사물함 AVAILABLE)
-        appRepo.deleteAll();
+        // 신청은 엔티티를 읽지 않고 DELETE 한 번
+        appRepo.deleteAllInBatch();
+        latestApps.invalidateAll();
+        waitlist.clearAll();
 
-        for (int i = LOCKER_MIN; i <= LOCKER_MAX; i++) {
-            final int n = i;
-            Locker locker = lockerRepo.findById(n).orElseGet(() -> new Locker(n));
-            locker.setState(Locker.State.AVAILABLE);
-            locker.setReservedStudentId(null);
-            lockerRepo.save(locker);
-        }
+        // 빠진 row는 배치로 채우고, 나머지는 UPDATE 한 번으로 되돌림
+        lockerJdbc.insertMissing(inventory);
+        lockerRepo.resetAllToAvailable();
+
+        // 커밋 후 그리드 스냅샷 재구성 + 전체 재조회 이벤트
+        changes.recordReset();
     }
 
     @Transactional(readOnly = true)
-    public MyStatusDto getMyStatus(String studentId, String code) {
-        // 학생: 학번+확인코드로 "내 상태" 조회
-        Application app = requireValidLookup(studentId, code);
-
-        Locker locker = lockerRepo.findById(app.getLockerNumber()).orElse(null);
-        if (locker == null || locker.getState() == Locker.State.AVAILABLE) {
-            return new MyStatusDto(studentId, "NONE", null, "현재 사용 중인 사물함이 없습니다.");
+    public MyStatusDto getMyStatus(String studentId, String code, LookupTokenService.Claims claims) {
+        // 학생: 학번+확인코드(또는 토큰)로 "내 상태" 조회
+        // 캐시된 최신 신청만으로 답함(반복 조회는 DB를 타지 않음)
+        LatestApplicationCache.Entry app = requireLookup(studentId, code, claims);
+        String sid = app.studentId();
+        String nextToken = issueToken(app, claims);
+
+        if (!app.lockerHeld()) {
+            return new MyStatusDto(sid, "NONE", null, "현재 사용 중인 사물함이 없습니다.", nextToken);
         }
 
-        if (app.getStatus() == Application.Status.PENDING) {
-            return new MyStatusDto(studentId, "PENDING", app.getLockerNumber(), "신청이 접수되었습니다. 관리자 승인을 기다려주세요.");
+        if (app.status() == Application.Status.PENDING) {
+            return new MyStatusDto(sid, "PENDING", app.lockerNumber(), "신청이 접수되었습니다. 관리자 승인을 기다려주세요.", nextToken);
         }
-        return new MyStatusDto(studentId, "APPROVED", app.getLockerNumber(), "승인되어 사용 중입니다.");
+        return new MyStatusDto(sid, "APPROVED", app.lockerNumber(), "승인되어 사용 중입니다.", nextToken);
     }
 
     @Transactional(readOnly = true)
-    public MyLockerDto getMyLocker(String studentId, String code) {
-        // 학생: 학번+확인코드로 "내 사물함 정보" 조회
-        Application app = requireValidLookup(studentId, code);
-
-        if (app.getStatus() != Application.Status.APPROVED) {
-            if (app.getStatus() == Application.Status.PENDING) {
+    public MyLockerDto getMyLocker(String studentId, String code, LookupTokenService.Claims claims) {
+        // 학생: 학번+확인코드(또는 토큰)로 "내 사물함 정보" 조회
+        LatestApplicationCache.Entry entry = requireLookup(studentId, code, claims);
+        String sid = entry.studentId();
+        String nextToken = issueToken(entry, claims);
+
+        if (entry.status() != Application.Status.APPROVED) {
+            if (entry.status() == Application.Status.PENDING) {
                 return new MyLockerDto(
                         "PENDING",
                         "신청이 접수되었습니다. 관리자 승인을 기다려주세요.",
-                        studentId,
+                        sid,
                         null,
                         null,
-                        app.getLockerNumber(),
-                        null
+                        entry.lockerNumber(),
+                        null,
+                        nextToken
                 );
             }
-            return new MyLockerDto("NONE", "현재 사용 중인 사물함이 없습니다.", studentId, null, null, null, null);
+            return new MyLockerDto("NONE", "현재 사용 중인 사물함이 없습니다.", sid, null, null, null, null, nextToken);
         }
 
+        // 이름/전화번호/메모는 캐시에 없으므로 승인된 경우에만 엔티티를 읽음
+        Application app = requireApplication(entry);
+
         return new MyLockerDto(
                 "APPROVED",
                 "승인되어 사용 중입니다.",
-                app.getStudentId(),
+                sid,
                 app.getName(),
                 app.getPhone(),
                 app.getLockerNumber(),
-                app.getMemo()
+                app.getMemo(),
+                nextToken
         );
     }
 
     @Transactional
-    public void saveMyMemo(String studentId, String code, String memo) {
+    public void saveMyMemo(String studentId, String code, LookupTokenService.Claims claims, String memo) {
         // 학생: 승인 상태 + 본인 사물함인지 확인 후 메모 저장
-        Application app = requireValidLookup(studentId, code);
+        Application app = requireApplication(requireLookup(studentId, code, claims));
 
         if (app.getStatus() != Application.Status.APPROVED) {
             throw new IllegalStateException("승인된 사물함이 없습니다.");
@@ -336,7 +596,7 @@ public class LockerService {
         Locker locker = lockerRepo.findById(app.getLockerNumber())
                 .orElseThrow(() -> new IllegalArgumentException("없는 사물함: " + app.getLockerNumber()));
 
-        if (locker.getState() != Locker.State.APPROVED || !studentId.equals(locker.getReservedStudentId())) {
+        if (locker.getState() != Locker.State.APPROVED || !app.getStudentId().equals(locker.getReservedStudentId())) {
             throw new IllegalStateException("현재 사용 중인 사물함이 아닙니다.");
         }
 
@@ -345,9 +605,9 @@ public class LockerService {
     }
 
     @Transactional
-    public void emptyMyLocker(String studentId, String code) {
+    public void emptyMyLocker(String studentId, String code, LookupTokenService.Claims claims) {
         // 학생: 승인 상태 + 본인 사물함인지 확인 후 반납 처리
-        Application app = requireValidLookup(studentId, code);
+        Application app = requireApplication(requireLookup(studentId, code, claims));
 
         if (app.getStatus() != Application.Status.APPROVED) {
             throw new IllegalStateException("승인된 사물함이 없습니다.");
@@ -356,14 +616,18 @@ public class LockerService {
         Locker locker = lockerRepo.findById(app.getLockerNumber())
                 .orElseThrow(() -> new IllegalArgumentException("없는 사물함: " + app.getLockerNumber()));
 
-        if (locker.getState() != Locker.State.APPROVED || !studentId.equals(locker.getReservedStudentId())) {
+        if (locker.getState() != Locker.State.APPROVED || !app.getStudentId().equals(locker.getReservedStudentId())) {
             throw new IllegalStateException("현재 사용 중인 사물함이 아닙니다.");
         }
 
         appRepo.delete(app);
+        latestApps.invalidate(app.getStudentId());
 
         locker.setState(Locker.State.AVAILABLE);
         locker.setReservedStudentId(null);
         lockerRepo.save(locker);
+
+        changes.record(LockerChange.of("EMPTIED", locker.getLockerNumber(), Locker.State.AVAILABLE.name(), null, app.getId()));
+        waitlist.promoteInto(locker.getLockerNumber());
     }
 }
@@ -0,0 +1,238 @@
+package com.cse.locker.service;
+
+import com.cse.locker.config.HashingProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 확인코드 해시(encode/matches)를 요청 스레드가 아니라 크기가 정해진 전용 풀에서 돌린다.
+ * CPU를 오래 쓰는 해시 작업이 톰캣 스레드를 다 잡아먹어서 그리드 조회 같은 가벼운 요청까지
+ * 멈추는 걸 막기 위함. 풀과 대기열이 꽉 차면 기다리지 않고 바로 503(Retry-After)으로 돌려보낸다.
+ *
+ * 해시 방식은 관리자 비밀번호용 PasswordEncoder 빈과 별개로 app.hashing에서 정한다.
+ * 새 해시는 "{bcrypt}..." / "{pbkdf2}..."처럼 방식 접두어를 붙여 저장하고,
+ * 접두어 없는 예전 해시("$2a$10$...")도 bcrypt로 검증된다.
+ */
+@Component
+public class LookupCodeHasher {
+
+    // 관리자 화면/모니터링용 현재 상태
+    public record Stats(
+            int threads,
+            int active,
+            int queueDepth,
+            int queueCapacity,
+            long completed,
+            long rejected,
+            long timedOut,
+            double avgWaitMillis,
+            double maxWaitMillis
+    ) {}
+
+    private static final Logger log = LoggerFactory.getLogger(LookupCodeHasher.class);
+
+    private static final String BUSY_MESSAGE = "요청이 많아 잠시 처리할 수 없습니다. 잠시 후 다시 시도해주세요.";
+
+    // bcrypt 해시의 비용 부분("$2a$10$...")
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder encoder;
+    private final String encodePrefix;
+    private final HashingProperties props;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+
+    // 해시 계산 자체에 걸린 시간(대기열 대기 제외)
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    // 대기열에서 기다린 시간
+    private final Timer waitTimer;
+
+    public LookupCodeHasher(HashingProperties props, MeterRegistry meters) {
+        this.encoder = lookupCodeEncoder(props);
+        this.encodePrefix = "{" + props.algorithm() + "}";
+        this.props = props;
+
+        this.encodeTimer = hashTimer(meters, "encode");
+        this.matchesTimer = hashTimer(meters, "matches");
+        this.waitTimer = Timer.builder("lookup.hash.wait")
+                .description("확인코드 해시 풀 대기열에서 기다린 시간")
+                .publishPercentileHistogram()
+                .register(meters);
+
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                props.threads(), props.threads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(props.queueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "lookup-hash-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("lookup.hash.queue.depth", executor, e -> e.getQueue().size()).register(meters);
+        Gauge.builder("lookup.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meters);
+        FunctionCounter.builder("lookup.hash.rejected", rejected, LongAdder::sum).register(meters);
+        FunctionCounter.builder("lookup.hash.timed.out", timedOut, LongAdder::sum).register(meters);
+        FunctionCounter.builder("lookup.hash.rehashed", rehashed, LongAdder::sum).register(meters);
+    }
+
+    private static PasswordEncoder lookupCodeEncoder(HashingProperties props) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(props.bcryptStrength()));
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder("", 16, props.pbkdf2Iterations(),
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(props.algorithm(), encoders);
+        // 접두어 없는 예전 해시는 모두 bcrypt(비용은 해시 안에 들어 있음)
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return delegating;
+    }
+
+    private static Timer hashTimer(MeterRegistry meters, String op) {
+        return Timer.builder("lookup.hash.duration")
+                .description("확인코드 해시 계산 시간")
+                .tag("op", op)
+                .publishPercentileHistogram()
+                .register(meters);
+    }
+
+    public String encode(String rawCode) {
+        return run(() -> encodeTimer.recordCallable(() -> encoder.encode(rawCode)));
+    }
+
+    public boolean matches(String rawCode, String hash) {
+        return run(() -> matchesTimer.recordCallable(() -> encoder.matches(rawCode, hash)));
+    }
+
+    public boolean needsRehash(String hash) {
+        // 지금 설정과 다른 방식/비용으로 저장된 해시인지(해시 계산 없이 문자열만 봄)
+        if (!hash.startsWith(encodePrefix)) return true;
+        if (!props.algorithm().equals("bcrypt")) {
+            // pbkdf2 해시에는 반복 횟수가 남지 않아서 방식이 같으면 그대로 둠
+            return false;
+        }
+        Matcher m = BCRYPT_COST.matcher(hash).region(encodePrefix.length(), hash.length());
+        return m.lookingAt() && Integer.parseInt(m.group(1)) != props.bcryptStrength();
+    }
+
+    public void rehashLater(String rawCode, Consumer<String> onHashed) {
+        // 검증에 성공한 코드를 새 설정으로 다시 해시. 학생 요청은 기다리지 않음
+        // 대기열이 절반 넘게 차 있으면 건너뜀(다음 검증 때 다시 시도됨)
+        if (executor.getQueue().size() > props.queueCapacity() / 2) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    onHashed.accept(encodeTimer.recordCallable(() -> encoder.encode(rawCode)));
+                    rehashed.increment();
+                } catch (Exception e) {
+                    log.warn("확인코드 재해시 실패", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 풀이 꽉 참: 학생 요청이 우선
+        }
+    }
+
+    private <T> T run(Callable<T> work) {
+        long submittedAt = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                recordWait(System.nanoTime() - submittedAt);
+                return work.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException(BUSY_MESSAGE, retryAfterSeconds());
+        }
+
+        try {
+            return future.get(props.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new ServiceBusyException(BUSY_MESSAGE, retryAfterSeconds());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException(BUSY_MESSAGE, retryAfterSeconds());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("확인코드 처리 중 오류가 발생했습니다.", e.getCause());
+        }
+    }
+
+    private void recordWait(long nanos) {
+        waitTimer.record(nanos, TimeUnit.NANOSECONDS);
+        started.increment();
+        waitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private long retryAfterSeconds() {
+        // 대략 "대기열이 한 번 비워질 시간" 정도만 기다리라고 안내
+        return Math.max(1, props.timeout().toSeconds() / 2);
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public Stats stats() {
+        long count = started.sum();
+        return new Stats(
+                props.threads(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                props.queueCapacity(),
+                executor.getCompletedTaskCount(),
+                rejected.sum(),
+                timedOut.sum(),
+                count == 0 ? 0.0 : waitNanos.sum() / (double) count / 1_000_000.0,
+                maxWaitNanos.get() / 1_000_000.0
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,55 @@
+package com.cse.locker.service;
+
+import com.cse.locker.config.HmacSigner;
+import com.cse.locker.config.LookupTokenProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * 학번+확인코드 검증에 한 번 성공하면 발급하는 짧은 수명의 서명 토큰.
+ * 토큰 = base64url(신청ID|만료시각|학번) + "." + base64url(HMAC-SHA256)
+ *
+ * 이후 요청은 BCrypt 대신 HMAC 한 번으로 확인하므로 마이크로초 단위로 끝난다.
+ * 토큰으로 조회해서 받은 새 토큰은 만료 시각을 그대로 물려받으므로, 확인코드 검증 후 ttl이 지나면
+ * 계속 쓰고 있어도 다시 확인코드를 입력해야 한다.
+ */
+@Component
+public class LookupTokenService {
+
+    public record Claims(long applicationId, String studentId, Instant expiresAt) {}
+
+    private final LookupTokenProperties props;
+    private final HmacSigner signer;
+
+    public LookupTokenService(LookupTokenProperties props) {
+        this.props = props;
+        this.signer = new HmacSigner(props.secret(), "app.lookup-token.secret");
+    }
+
+    public String issue(long applicationId, String studentId) {
+        // 확인코드 검증 직후: 지금부터 ttl
+        long exp = Instant.now().plus(props.ttl()).getEpochSecond();
+        return signer.sign(applicationId, exp, studentId);
+    }
+
+    public String renew(long applicationId, String studentId, Claims from) {
+        // 토큰으로 조회한 경우: 만료 시각은 처음 발급 때 그대로(쓰는 동안 계속 늘어나지 않게)
+        return signer.sign(applicationId, from.expiresAt().getEpochSecond(), studentId);
+    }
+
+    public Claims verify(String token) {
+        // 형식/서명/만료 중 하나라도 틀리면 null (DB/BCrypt 없이 판정)
+        String[] parts = signer.verify(token, 3);
+        if (parts == null) return null;
+
+        try {
+            long applicationId = Long.parseLong(parts[0]);
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(parts[1]));
+            if (Instant.now().isAfter(expiresAt)) return null;
+            return new Claims(applicationId, parts[2], expiresAt);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.cse.locker.service;
+
+import com.cse.locker.config.LockerProperties;
+import com.cse.locker.config.LotteryProperties;
+import com.cse.locker.repo.LotteryJdbcRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 선착순 대신 추첨으로 사물함을 배정하는 모드(app.lottery).
+ *
+ * 응모 기간에는 희망 사물함만 INSERT 한 번으로 기록한다(사물함 row를 건드리지 않아 경쟁이 없음).
+ * 마감 시각이 지나면 한 번 추첨한다: 응모 전체를 메모리에 올려 seed로 섞은 순서대로
+ * 희망 사물함을 배정하고, 배정(사물함 UPDATE + 신청 INSERT)과 탈락자 대기 명단을 배치로 쓴다.
+ * 같은 seed와 같은 응모면 결과가 같다(seed는 lottery_draws에 남음).
+ */
+@Service
+public class LotteryService {
+
+    private static final Logger log = LoggerFactory.getLogger(LotteryService.class);
+
+    public enum Phase { OFF, BEFORE, OPEN, DRAWING, DONE }
+
+    // 응모 결과: 확인코드는 배정되면 그대로 조회에 씀
+    public record EntryResult(String lookupCode, OffsetDateTime drawAt) {}
+
+    public record DrawReport(
+            long seed,
+            int entrants,
+            int assigned,
+            int waitlisted,
+            int skipped,      // 이미 사물함이 있거나 대기 중이던 학생
+            long loadMillis,  // 응모/빈 사물함 읽기
+            long drawMillis,  // 메모리 추첨
+            long writeMillis, // 배치 쓰기
+            long totalMillis
+    ) {}
+
+    public record Status(Phase phase, OffsetDateTime opensAt, OffsetDateTime closesAt, int entrants, DrawReport lastDraw) {}
+
+    private final LotteryProperties props;
+    private final LockerProperties inventory;
+    private final LotteryJdbcRepository lotteryJdbc;
+    private final LookupCodeHasher hasher;
+    private final LatestApplicationCache latestApps;
+    private final WaitlistService waitlist;
+    private final LockerChangeRecorder changes;
+    private final TransactionTemplate tx;
+    private final Timer drawTimer;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "lottery-draw");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean drawn = new AtomicBoolean(false);
+    private volatile DrawReport lastDraw;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public LotteryService(LotteryProperties props, LockerProperties inventory, LotteryJdbcRepository lotteryJdbc,
+                          LookupCodeHasher hasher, LatestApplicationCache latestApps, WaitlistService waitlist,
+                          LockerChangeRecorder changes, PlatformTransactionManager txManager, MeterRegistry meters) {
+        this.props = props;
+        this.inventory = inventory;
+        this.lotteryJdbc = lotteryJdbc;
+        this.hasher = hasher;
+        this.latestApps = latestApps;
+        this.waitlist = waitlist;
+        this.changes = changes;
+        this.tx = new TransactionTemplate(txManager);
+        this.drawTimer = Timer.builder("lottery.draw")
+                .description("추첨 전체 시간(읽기 + 추첨 + 배치 쓰기)")
+                .register(meters);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleDraw() {
+        if (!props.enabled()) return;
+
+        OffsetDateTime now = OffsetDateTime.now();
+        if (now.isAfter(props.closesAt()) && lotteryJdbc.countEntries() == 0) {
+            // 이미 추첨이 끝난 뒤 재시작
+            drawn.set(true);
+            return;
+        }
+
+        long delay = Math.max(0, Duration.between(now, props.closesAt()).toMillis());
+        scheduler.schedule(() -> {
+            try {
+                draw(null);
+            } catch (RuntimeException e) {
+                // 실패하면 /api/admin/lottery/draw로 다시 돌릴 수 있음(그때까지 신청은 503)
+                log.error("자동 추첨 실패", e);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+        log.info("추첨 예약: {} (응모 {} ~ {})", props.closesAt(), props.opensAt(), props.closesAt());
+    }
+
+    public Phase phase() {
+        if (!props.enabled()) return Phase.OFF;
+        OffsetDateTime now = OffsetDateTime.now();
+        if (now.isBefore(props.opensAt())) return Phase.BEFORE;
+        if (now.isBefore(props.closesAt())) return Phase.OPEN;
+        return drawn.get() ? Phase.DONE : Phase.DRAWING;
+    }
+
+    public boolean handlesApply() {
+        // 추첨이 끝나기 전까지는 /api/public/apply를 추첨 응모로 받음
+        Phase p = phase();
+        return p == Phase.BEFORE || p == Phase.OPEN || p == Phase.DRAWING;
+    }
+
+    public EntryResult enter(String studentId, String name, String phone, int lockerNumber, List<Integer> preferences) {
+        // 학생: 희망 사물함만 기록(사물함 상태는 바꾸지 않음)
+        Phase p = phase();
+        if (p == Phase.BEFORE) {
+            throw new IllegalStateException("추첨 응모는 " + props.opensAt() + "부터입니다.");
+        }
+        if (p == Phase.DRAWING) {
+            throw new ServiceBusyException("추첨 결과를 처리하고 있습니다. 잠시 후 다시 시도해주세요.", 5);
+        }
+        if (p != Phase.OPEN) {
+            throw new IllegalStateException("추첨 응모 기간이 아닙니다.");
+        }
+
+        if (studentId == null || studentId.isBlank() || name == null || name.isBlank()
+                || phone == null || phone.isBlank()) {
+            throw new IllegalArgumentException("학번/이름/전화번호를 모두 입력하세요.");
+        }
+        String sid = studentId.trim();
+        int[] choices = toChoices(lockerNumber, preferences);
+
+        if (latestApps.get(sid).map(LatestApplicationCache.Entry::lockerHeld).orElse(false)) {
+            throw new IllegalStateException("이미 신청 또는 사용 중인 사물함이 있습니다. (중복 신청 불가)");
+        }
+
+        String code = String.valueOf(random.nextInt(900000) + 100000);
+        try {
+            lotteryJdbc.insertEntry(sid, name.trim(), phone.trim(), hasher.encode(code), choices);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("이미 응모했습니다.");
+        }
+        return new EntryResult(code, props.closesAt());
+    }
+
+    private int[] toChoices(int lockerNumber, List<Integer> preferences) {
+        // 희망 목록이 없으면 선택한 사물함 하나, 그것도 없으면(0) 아무 사물함
+        Set<Integer> out = new LinkedHashSet<>();
+        if (preferences != null && !preferences.isEmpty()) {
+            for (Integer n : preferences) {
+                if (n != null) out.add(n);
+            }
+        } else if (lockerNumber > 0) {
+            out.add(lockerNumber);
+        }
+
+        if (out.size() > props.maxChoices()) {
+            throw new IllegalArgumentException("희망 사물함은 최대 " + props.maxChoices() + "개까지 고를 수 있습니다.");
+        }
+        for (int n : out) {
+            if (!inventory.contains(n)) throw new IllegalArgumentException("없는 사물함: " + n);
+        }
+        return out.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public Status status() {
+        return new Status(phase(), props.opensAt(), props.closesAt(),
+                props.enabled() ? lotteryJdbc.countEntries() : 0, lastDraw);
+    }
+
+    public DrawReport drawNow(Long seed) {
+        // 관리자: 자동 추첨이 실패했을 때 다시 돌림(seed를 주면 그 값으로)
+        Phase p = phase();
+        if (p == Phase.OFF) throw new IllegalStateException("추첨 모드가 꺼져 있습니다.");
+        if (p == Phase.BEFORE || p == Phase.OPEN) {
+            throw new IllegalStateException("응모 기간이 끝난 뒤에 추첨할 수 있습니다.");
+        }
+        return draw(seed);
+    }
+
+    private synchronized DrawReport draw(Long seedOverride) {
+        long seed = seedOverride != null ? seedOverride
+                : props.seed() != null ? props.seed()
+                : random.nextLong();
+
+        long started = System.nanoTime();
+        DrawReport report = tx.execute(status -> drawInTransaction(seed, started));
+        drawTimer.record(report.totalMillis(), TimeUnit.MILLISECONDS);
+
+        lastDraw = report;
+        drawn.set(true);
+        log.info("추첨 완료: {}", report);
+        return report;
+    }
+
+    private DrawReport drawInTransaction(long seed, long started) {
+        // 1) 빈 사물함을 잠그고 응모 전체를 읽음
+        BitSet available = lotteryJdbc.lockAvailableLockers(inventory.maxNumber());
+        // 설정에서 빠진 뱅크의 row는 AVAILABLE이어도 추첨하지 않음
+        for (int n = available.nextSetBit(0); n >= 0; n = available.nextSetBit(n + 1)) {
+            if (!inventory.contains(n)) available.clear(n);
+        }
+        List<LotteryJdbcRepository.Entry> entries = lotteryJdbc.loadEntries();
+        Set<String> holding = lotteryJdbc.studentsHoldingLockers();
+        Set<String> waiting = lotteryJdbc.waitlistedStudents();
+        long loaded = System.nanoTime();
+
+        // 2) seed로 응모 순서를 섞고, 그 순서대로 희망 사물함 중 남은 첫 번째를 배정
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int[] order = shuffledIndexes(entries.size(), rnd);
+        // "아무 사물함" 응모자에게 줄 빈 사물함 순서도 같은 seed로 섞어 둠
+        int[] free = available.stream().toArray();
+        shuffle(free, rnd);
+        int freeCursor = 0;
+
+        List<LotteryJdbcRepository.Assignment> assigned = new ArrayList<>();
+        List<LotteryJdbcRepository.Entry> losers = new ArrayList<>();
+        int skipped = 0;
+        for (int i : order) {
+            LotteryJdbcRepository.Entry e = entries.get(i);
+            if (holding.contains(e.studentId()) || waiting.contains(e.studentId())) {
+                skipped++;
+                continue;
+            }
+
+            int locker = -1;
+            for (int c : e.choices()) {
+                if (available.get(c)) {
+                    locker = c;
+                    break;
+                }
+            }
+            if (locker < 0 && e.choices().length == 0) {
+                while (freeCursor < free.length && !available.get(free[freeCursor])) freeCursor++;
+                if (freeCursor < free.length) locker = free[freeCursor++];
+            }
+
+            if (locker < 0) {
+                // 떨어진 순서 그대로 대기 명단으로(응모 때 받은 확인코드 유지)
+                losers.add(e);
+                continue;
+            }
+            available.clear(locker);
+            assigned.add(new LotteryJdbcRepository.Assignment(locker, e));
+        }
+        long drawnAt = System.nanoTime();
+
+        // 3) 배정/대기 명단을 배치로 쓰고 응모는 비움(같은 응모로 두 번 추첨되지 않게)
+        lotteryJdbc.writeAssignments(assigned);
+        lotteryJdbc.insertWaitlist(losers);
+        lotteryJdbc.deleteEntries();
+        long written = System.nanoTime();
+
+        DrawReport report = new DrawReport(seed, entries.size(), assigned.size(), losers.size(), skipped,
+                millis(loaded - started), millis(drawnAt - loaded), millis(written - drawnAt), millis(written - started));
+        lotteryJdbc.insertDraw(seed, report.entrants(), report.assigned(), report.waitlisted(), report.skipped(),
+                report.loadMillis(), report.drawMillis(), report.writeMillis());
+
+        // 한꺼번에 바뀌었으므로 캐시/그리드/SSE는 전체 재조회로
+        latestApps.invalidateAll();
+        changes.recordReset();
+        afterCommit(waitlist::reload);
+        return report;
+    }
+
+    private static int[] shuffledIndexes(int n, SplittableRandom rnd) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) a[i] = i;
+        shuffle(a, rnd);
+        return a;
+    }
+
+    private static void shuffle(int[] a, SplittableRandom rnd) {
+        // Fisher-Yates
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
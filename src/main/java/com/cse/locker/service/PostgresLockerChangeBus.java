@@ -0,0 +1,179 @@
+package com.cse.locker.service;
+
+import com.cse.locker.config.EventBusProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서버 여러 대용. PostgreSQL LISTEN/NOTIFY로 모든 서버에 변경을 전달한다.
+ *
+ * 자기 변경은 로컬에 바로 발행하고 NOTIFY도 보낸다. 알림에는 보낸 서버의 nodeId가 들어 있어서
+ * 자기가 보낸 알림은 무시하고, 다른 서버가 보낸 알림만 그리드 재구성 + 로컬 발행으로 이어진다.
+ *
+ * NOTIFY는 afterCommit 안에서 보내면 안 된다(아직 요청 스레드에 묶여 있는 커밋 끝난 커넥션에서
+ * 새 트랜잭션이 열리고 커밋되지 않음). 그래서 전용 스레드 하나에서 순서대로 보낸다.
+ * LISTEN은 풀에서 커넥션 하나를 계속 빌려 쓴다.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.bus", havingValue = "postgres")
+public class PostgresLockerChangeBus implements LockerChangeBus {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresLockerChangeBus.class);
+
+    // NOTIFY 페이로드 상한은 8000바이트. 넘으면 칸 단위 대신 전체 재조회로 알림
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int NOTIFY_QUEUE_CAPACITY = 10_000;
+    private static final int POLL_MILLIS = 1000;
+
+    // 서버끼리 주고받는 알림 본문
+    record Envelope(String origin, List<LockerChange> changes, boolean reset) {}
+
+    private final LockerGridCache gridCache;
+    private final ApplicationEventPublisher events;
+    private final JdbcTemplate jdbc;
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final EventBusProperties props;
+
+    private final ExecutorService notifier = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(NOTIFY_QUEUE_CAPACITY), r -> daemon(r, "locker-event-notify"));
+    private final Thread listener;
+    private volatile boolean running = true;
+
+    public PostgresLockerChangeBus(LockerGridCache gridCache, ApplicationEventPublisher events,
+                                   JdbcTemplate jdbc, DataSource dataSource,
+                                   ObjectMapper objectMapper, EventBusProperties props) {
+        this.gridCache = gridCache;
+        this.events = events;
+        this.jdbc = jdbc;
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.props = props;
+
+        this.listener = daemon(this::listenLoop, "locker-event-listen");
+        this.listener.start();
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    @Override
+    public void publish(LockerChangeEvent event) {
+        deliverLocally(event);
+
+        String payload = encode(event);
+        try {
+            notifier.execute(() -> notifyOthers(payload));
+        } catch (RejectedExecutionException e) {
+            // DB가 멈춰 알림이 밀린 상황. 다른 서버는 LISTEN 재연결 때 전체 재조회로 맞춰짐
+            log.warn("사물함 변경 알림 대기열이 가득 차서 알림을 버립니다.");
+        }
+    }
+
+    private void deliverLocally(LockerChangeEvent event) {
+        gridCache.requestRebuild();
+        events.publishEvent(event);
+    }
+
+    private String encode(LockerChangeEvent event) {
+        try {
+            String json = objectMapper.writeValueAsString(new Envelope(props.nodeId(), event.changes(), event.reset()));
+            if (json.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) return json;
+            return objectMapper.writeValueAsString(new Envelope(props.nodeId(), List.of(), true));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("사물함 변경 알림 직렬화 실패", e);
+        }
+    }
+
+    private void notifyOthers(String payload) {
+        try {
+            jdbc.queryForObject("select pg_notify(?, ?)", String.class, props.channel(), payload);
+        } catch (RuntimeException e) {
+            log.warn("사물함 변경 알림(NOTIFY) 전송 실패", e);
+        }
+    }
+
+    private void listenLoop() {
+        boolean reconnected = false;
+        while (running) {
+            try (Connection conn = dataSource.getConnection()) {
+                conn.setAutoCommit(true);
+                try (Statement st = conn.createStatement()) {
+                    st.execute("LISTEN " + props.channel());
+                }
+                PGConnection pg = conn.unwrap(PGConnection.class);
+
+                if (reconnected) {
+                    // 끊겨 있던 동안의 알림은 잃어버렸으므로 전체를 다시 읽게 함
+                    deliverLocally(new LockerChangeEvent(List.of(), true));
+                }
+                reconnected = true;
+
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_MILLIS);
+                    if (notifications == null) continue;
+                    for (PGNotification n : notifications) {
+                        onNotification(n.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) return;
+                log.warn("사물함 변경 LISTEN 연결이 끊겼습니다. 다시 연결합니다.", e);
+                sleep(props.reconnectDelay().toMillis());
+            }
+        }
+    }
+
+    private void onNotification(String payload) {
+        Envelope env;
+        try {
+            env = objectMapper.readValue(payload, Envelope.class);
+        } catch (JsonProcessingException e) {
+            log.warn("알 수 없는 사물함 변경 알림: {}", payload);
+            return;
+        }
+        // 자기가 보낸 알림은 publish에서 이미 로컬에 발행했음
+        if (props.nodeId().equals(env.origin())) return;
+
+        deliverLocally(new LockerChangeEvent(env.changes() == null ? List.of() : env.changes(), env.reset()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        listener.interrupt();
+        notifier.shutdown();
+    }
+}
@@ -0,0 +1,19 @@
+package com.cse.locker.service;
+
+/**
+ * 서버가 지금은 요청을 받을 여유가 없을 때 던지는 예외.
+ * ApiExceptionHandler에서 503 + Retry-After로 바뀐다.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
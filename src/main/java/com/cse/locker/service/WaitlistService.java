@@ -0,0 +1,261 @@
+package com.cse.locker.service;
+
+import com.cse.locker.config.LockerProperties;
+import com.cse.locker.domain.Application;
+import com.cse.locker.domain.Locker;
+import com.cse.locker.domain.WaitlistEntry;
+import com.cse.locker.repo.ApplicationRepository;
+import com.cse.locker.repo.LockerRepository;
+import com.cse.locker.repo.WaitlistRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 빈 사물함이 없을 때의 대기 명단.
+ *
+ * 학생은 한 번 등록하고 확인코드를 받는다. 사물함이 AVAILABLE로 돌아가는 트랜잭션
+ * (반려/비우기/반납)이 그 안에서 promoteInto를 불러 대기 1번을 바로 RESERVED 신청으로 올리므로,
+ * 빈 칸이 다른 학생 눈에 보이는 순간이 없고 그리드를 계속 새로고침할 이유도 없다.
+ *
+ * 순서는 테이블(id 순) 하나가 기준이다. 배정은 DB 맨 앞을 잠가서 꺼내므로 서버가 여러 대여도
+ * 먼저 등록한 학생이 먼저 배정되고, 순번 조회도 DB에서 센다(확인코드 필요).
+ * 메모리에는 이 서버에서 본 등록(학번 -> id)만 들고 있어서, 대기 중이 아닌 대부분의 학생은
+ * 신청/직권 배정 때 대기 명단 확인으로 DB를 타지 않는다. 메모리는 커밋된 뒤에만 바뀐다.
+ *
+ * 등록/순번 조회/취소의 BCrypt(확인코드 해시/검증)는 트랜잭션 밖에서 하고,
+ * 트랜잭션은 저장/조회/삭제만 짧게 잡는다(해시하는 동안 커넥션을 붙잡지 않음).
+ */
+@Service
+@Timed(value = "locker.service", histogram = true)
+public class WaitlistService {
+
+    public record JoinResult(String lookupCode, int position) {}
+
+    public record Position(int position, int size) {}
+
+    // 명단에 없는 것과 확인코드가 틀린 것을 구분하지 않음(학번만으로 대기 여부를 알 수 없게)
+    private static final String NOT_WAITING_MESSAGE =
+            "대기 명단에서 찾을 수 없습니다. 학번/확인코드를 확인하거나, 배정됐는지 나의 사물함 조회에서 확인해주세요.";
+
+    private final WaitlistRepository waitRepo;
+    private final LockerRepository lockerRepo;
+    private final ApplicationRepository appRepo;
+    private final LookupCodeHasher hasher;
+    private final LockerGridCache gridCache;
+    private final LatestApplicationCache latestApps;
+    private final LockerChangeRecorder changes;
+    private final LockerProperties inventory;
+    private final TransactionTemplate tx;
+
+    // 학번 -> id(이 서버에서 본 등록)
+    private final Map<String, Long> idByStudent = new ConcurrentHashMap<>();
+
+    private final Counter promoted;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public WaitlistService(WaitlistRepository waitRepo, LockerRepository lockerRepo, ApplicationRepository appRepo,
+                           LookupCodeHasher hasher, LockerGridCache gridCache, LatestApplicationCache latestApps,
+                           LockerChangeRecorder changes, LockerProperties inventory,
+                           PlatformTransactionManager txManager, MeterRegistry meters) {
+        this.waitRepo = waitRepo;
+        this.lockerRepo = lockerRepo;
+        this.appRepo = appRepo;
+        this.hasher = hasher;
+        this.gridCache = gridCache;
+        this.latestApps = latestApps;
+        this.changes = changes;
+        this.inventory = inventory;
+        this.tx = new TransactionTemplate(txManager);
+
+        Gauge.builder("waitlist.size", idByStudent, Map::size).register(meters);
+        this.promoted = Counter.builder("waitlist.promoted").register(meters);
+    }
+
+    @PostConstruct
+    public void load() {
+        // 재시작해도 명단은 테이블에 남아 있음
+        for (WaitlistEntry e : waitRepo.findAllByOrderByIdAsc()) {
+            idByStudent.put(e.getStudentId(), e.getId());
+        }
+    }
+
+    public void reload() {
+        // 테이블을 직접 채운 뒤(추첨 결과 대기 명단) 메모리를 다시 맞춤
+        idByStudent.clear();
+        load();
+    }
+
+    public JoinResult join(String studentId, String name, String phone) {
+        // 학생: 대기 등록 + 확인코드 1회 반환(배정되면 이 코드로 조회)
+        if (studentId == null || studentId.isBlank() || name == null || name.isBlank()
+                || phone == null || phone.isBlank()) {
+            throw new IllegalArgumentException("학번/이름/전화번호를 모두 입력하세요.");
+        }
+        String sid = studentId.trim();
+
+        if (idByStudent.containsKey(sid)) {
+            throw new IllegalStateException("이미 대기 중입니다.");
+        }
+        if (hasAvailableLocker()) {
+            throw new IllegalStateException("비어 있는 사물함이 있습니다. 바로 신청해주세요.");
+        }
+        if (latestApps.get(sid).map(LatestApplicationCache.Entry::lockerHeld).orElse(false)) {
+            throw new IllegalStateException("이미 신청 또는 사용 중인 사물함이 있습니다. (중복 신청 불가)");
+        }
+
+        // 해시는 트랜잭션 밖에서(커넥션 없이) 먼저 계산
+        String code = String.valueOf(random.nextInt(900000) + 100000);
+        WaitlistEntry entry = new WaitlistEntry(sid, name.trim(), phone.trim(), hasher.encode(code));
+
+        try {
+            return tx.execute(status -> {
+                waitRepo.saveAndFlush(entry);
+                long id = entry.getId();
+                afterCommit(() -> idByStudent.put(sid, id));
+                // 다른 서버에서 등록된 학생까지 포함한 앞 인원 + 1
+                return new JoinResult(code, (int) waitRepo.countByIdLessThan(id) + 1);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 다른 서버에 먼저 등록됨(uk_waitlist_entries_student_id)
+            throw new IllegalStateException("이미 대기 중입니다.");
+        }
+    }
+
+    public Position position(String studentId, String code) {
+        // 학생: 확인코드로 본인 확인 후 순번 조회(DB 기준)
+        if (studentId == null || studentId.isBlank()) {
+            throw new IllegalArgumentException("학번이 비었습니다.");
+        }
+        if (code == null || code.isBlank()) {
+            throw new IllegalArgumentException("확인코드를 입력해주세요.");
+        }
+
+        WaitlistEntry entry = findVerified(studentId, code);
+        return tx.execute(status ->
+                new Position((int) waitRepo.countByIdLessThan(entry.getId()) + 1, (int) waitRepo.count()));
+    }
+
+    public void leave(String studentId, String code) {
+        // 학생: 확인코드로 본인 확인 후 대기 취소
+        if (studentId == null || studentId.isBlank()) {
+            throw new IllegalArgumentException("학번이 비었습니다.");
+        }
+        if (code == null || code.isBlank()) {
+            throw new IllegalArgumentException("확인코드를 입력해주세요.");
+        }
+
+        WaitlistEntry entry = findVerified(studentId, code);
+        tx.executeWithoutResult(status -> {
+            // 검증한 뒤 그 사이 배정됐으면 지울 행이 없음
+            if (waitRepo.claim(entry.getId()) == 0) {
+                throw new IllegalStateException("이미 사물함이 배정되었습니다. 나의 사물함 조회에서 확인해주세요.");
+            }
+            afterCommit(() -> forget(entry.getId(), entry.getStudentId()));
+        });
+    }
+
+    private WaitlistEntry findVerified(String studentId, String code) {
+        // 조회는 짧은 읽기 한 번, 확인코드 검증(BCrypt)은 트랜잭션 밖에서
+        WaitlistEntry entry = waitRepo.findByStudentId(studentId.trim()).orElse(null);
+        if (entry == null || !hasher.matches(code.trim(), entry.getLookupCodeHash())) {
+            throw new IllegalStateException(NOT_WAITING_MESSAGE);
+        }
+        return entry;
+    }
+
+    public void dropStudent(String studentId) {
+        // 대기 중인 학생이 빈 사물함을 직접 신청/지정받음: 명단에서 뺌
+        // 대부분은 대기 중이 아니므로 메모리만 보고 끝남
+        Long id = idByStudent.get(studentId);
+        if (id == null) return;
+        if (waitRepo.claim(id) > 0) {
+            afterCommit(() -> forget(id, studentId));
+        }
+    }
+
+    /**
+     * 호출한 쪽의 트랜잭션 안에서, 방금 AVAILABLE이 된 사물함을 대기 맨 앞 학생에게 배정한다.
+     * 사물함 상태 변경이 먼저 flush돼 있어야 한다(compareAndSetState가 자동으로 flush함).
+     * 대기가 없으면 false(사물함은 AVAILABLE 그대로).
+     */
+    public boolean promoteInto(int lockerNumber) {
+        // 설정에서 빠진 뱅크의 사물함이 비워진 경우: 다시 배정하지 않음
+        if (!inventory.contains(lockerNumber)) return false;
+
+        while (true) {
+            // DB 맨 앞을 잠가서 꺼냄(다른 서버에서 등록된 학생도 등록 순서대로).
+            // 동시에 다른 사물함을 배정 중인 트랜잭션이 잡은 항목은 건너뛰고 그다음 사람
+            WaitlistEntry entry = waitRepo.lockHead().orElse(null);
+            if (entry == null) return false;
+
+            long id = entry.getId();
+            String sid = entry.getStudentId();
+            waitRepo.claim(id);
+            afterCommit(() -> forget(id, sid));
+
+            // 대기 중에 다른 경로로 사물함을 잡았으면 명단에서만 빼고 다음 사람
+            if (lockerRepo.existsByReservedStudentId(sid)) continue;
+
+            int updated = lockerRepo.compareAndSetState(lockerNumber, Locker.State.AVAILABLE, Locker.State.RESERVED, sid);
+            if (updated == 0) {
+                // 호출한 트랜잭션이 방금 비운 사물함이라 생기면 안 되는 상황
+                throw new IllegalStateException("대기 배정 중 사물함 상태가 바뀌었습니다: " + lockerNumber);
+            }
+
+            // 등록 때 받은 확인코드를 그대로 쓰도록 해시를 옮김
+            Application app = new Application(sid, entry.getName(), entry.getPhone(), lockerNumber, Application.Status.PENDING);
+            app.setLookupCodeHash(entry.getLookupCodeHash());
+            appRepo.save(app);
+            latestApps.invalidate(sid);
+            promoted.increment();
+
+            changes.record(new LockerChange("PROMOTED", lockerNumber, Locker.State.RESERVED.name(), sid,
+                    app.getId(), entry.getName(), entry.getPhone()));
+            return true;
+        }
+    }
+
+    public void clearAll() {
+        // 전체 초기화(호출한 쪽 트랜잭션 안에서)
+        waitRepo.deleteAllInBatch();
+        afterCommit(idByStudent::clear);
+    }
+
+    private boolean hasAvailableLocker() {
+        for (LockerService.LockerDto l : gridCache.current().lockers()) {
+            if ("AVAILABLE".equals(l.state())) return true;
+        }
+        return false;
+    }
+
+    private void forget(long id, String studentId) {
+        idByStudent.remove(studentId, id);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,6 +1,13 @@
 package com.cse.locker.web;
 
+import com.cse.locker.service.LockerGridCache;
 import com.cse.locker.service.LockerService;
+import com.cse.locker.service.LookupCodeHasher;
+import com.cse.locker.service.LookupTokenService;
+import com.cse.locker.service.LotteryService;
+import com.cse.locker.service.WaitlistService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -12,11 +19,25 @@ import java.util.List;
 public class ApiController {
 
     private final LockerService service;
-    private final SseController sse;
+    private final ApplyAdmissionQueue admission;
+    private final LookupCodeHasher hasher;
+    private final LookupRateLimiter rateLimiter;
+    private final LookupTokenService lookupTokens;
+    private final WaitlistService waitlist;
+    private final LotteryService lottery;
+    private final IdempotencyStore idempotency;
 
-    public ApiController(LockerService service, SseController sse) {
+    public ApiController(LockerService service, ApplyAdmissionQueue admission, LookupCodeHasher hasher,
+                         LookupRateLimiter rateLimiter, LookupTokenService lookupTokens, WaitlistService waitlist,
+                         LotteryService lottery, IdempotencyStore idempotency) {
         this.service = service;
-        this.sse = sse;
+        this.admission = admission;
+        this.hasher = hasher;
+        this.rateLimiter = rateLimiter;
+        this.lookupTokens = lookupTokens;
+        this.waitlist = waitlist;
+        this.lottery = lottery;
+        this.idempotency = idempotency;
     }
 
     // -----------------------
@@ -24,16 +45,43 @@ public class ApiController {
     // -----------------------
 
     @GetMapping("/api/public/lockers")
-    public List<LockerService.LockerDto> lockers() {
-        // 사물함 전체 상태 조회
-        return service.getLockerGrid();
+    public ResponseEntity<List<LockerService.LockerDto>> lockers() {
+        // 사물함 전체 상태 조회(메모리 스냅샷)
+        // ETag가 붙어 있으면 If-None-Match가 같을 때 스프링이 304로 응답함
+        LockerGridCache.Snapshot snapshot = service.getLockerGridSnapshot();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(snapshot.etag())
+                .body(snapshot.lockers());
     }
 
-    public record ApplyReq(String studentId, String name, String phone, int lockerNumber) {}
+    // preferences: 추첨 모드에서만 사용(희망 사물함 순서, 없으면 lockerNumber 하나)
+    public record ApplyReq(String studentId, String name, String phone, int lockerNumber, List<Integer> preferences) {}
     public record ApplyRes(String lookupCode) {}
 
     @PostMapping("/api/public/apply")
-    public ResponseEntity<?> apply(@RequestBody ApplyReq req) {
+    public ResponseEntity<?> apply(
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody ApplyReq req
+    ) {
+        // Idempotency-Key가 있으면 같은 내용의 재시도는 첫 결과(확인코드/실패 사유)를 그대로 받음
+        return idempotency.execute("apply", idempotencyKey,
+                IdempotencyStore.fingerprint(req.studentId(), req.name(), req.phone(), req.lockerNumber(), req.preferences()),
+                () -> doApply(req));
+    }
+
+    private ResponseEntity<?> doApply(ApplyReq req) {
+        // 추첨 모드(응모 기간 ~ 추첨 끝)에는 희망 사물함만 기록
+        if (lottery.handlesApply()) {
+            return ResponseEntity.ok(lottery.enter(
+                    req.studentId(), req.name(), req.phone(), req.lockerNumber(), req.preferences()));
+        }
+
+        // 대기열 사용 중이면 바로 처리하지 않고 대기표만 발급(202)
+        if (admission.isEnabled()) {
+            return ResponseEntity.accepted().body(admission.enqueue(req));
+        }
+
         // 사물함 신청 + 확인코드 발급
         String code = service.apply(
                 req.studentId().trim(),
@@ -41,17 +89,56 @@ public class ApiController {
                 req.phone().trim(),
                 req.lockerNumber()
         );
-        sse.broadcast("changed");
         return ResponseEntity.ok(new ApplyRes(code));
     }
 
+    @GetMapping("/api/public/apply/queue/{ticket}")
+    public ApplyAdmissionQueue.TicketStatus applyQueueStatus(@PathVariable String ticket) {
+        // 대기표 순번/예상 시간 조회, 처리 끝났으면 확인코드 또는 실패 사유
+        return admission.poll(ticket);
+    }
+
     @GetMapping("/api/public/my-status")
     public LockerService.MyStatusDto myStatus(
-            @RequestParam String studentId,
-            @RequestParam String code
+            @RequestParam(required = false) String studentId,
+            @RequestParam(required = false) String code,
+            @RequestParam(required = false) String token,
+            HttpServletRequest request
     ) {
-        // 학번 + 확인코드로 현재 상태 조회
-        return service.getMyStatus(studentId.trim(), code.trim());
+        // 학번 + 확인코드(또는 이전 응답의 토큰)로 현재 상태 조회
+        LookupTokenService.Claims claims = throttleLookup(request, studentId, token);
+        return service.getMyStatus(trim(studentId), trim(code), claims);
+    }
+
+    // -----------------------
+    // Public: Waitlist
+    // -----------------------
+
+    public record WaitlistReq(String studentId, String name, String phone) {}
+
+    @PostMapping("/api/public/waitlist")
+    public WaitlistService.JoinResult joinWaitlist(@RequestBody WaitlistReq req, HttpServletRequest request) {
+        // 빈 사물함이 없을 때 대기 등록 + 확인코드 발급(자리가 나면 자동으로 신청됨)
+        // 등록마다 BCrypt를 돌므로 조회 API와 같은 요청 제한(IP + 학번)을 먼저 확인
+        throttleLookup(request, req.studentId(), null);
+        return waitlist.join(req.studentId(), req.name(), req.phone());
+    }
+
+    public record WaitlistLookupReq(String studentId, String code) {}
+
+    @PostMapping("/api/public/waitlist/position")
+    public WaitlistService.Position waitlistPosition(@RequestBody WaitlistLookupReq req, HttpServletRequest request) {
+        // 대기 순번 조회(확인코드 필요, 조회 API와 같은 요청 제한). 명단에 없으면 배정됐는지 나의 사물함 조회로 확인
+        throttleLookup(request, req.studentId(), null);
+        return waitlist.position(trim(req.studentId()), trim(req.code()));
+    }
+
+    @PostMapping("/api/public/waitlist/leave")
+    public ResponseEntity<?> leaveWaitlist(@RequestBody WaitlistLookupReq req, HttpServletRequest request) {
+        // 대기 취소(확인코드 검증이 있으므로 조회 API와 같은 요청 제한)
+        throttleLookup(request, req.studentId(), null);
+        waitlist.leave(trim(req.studentId()), trim(req.code()));
+        return ResponseEntity.ok().build();
     }
 
     // -----------------------
@@ -68,7 +155,6 @@ public class ApiController {
     public ResponseEntity<?> approve(@PathVariable long applicationId) {
         // 신청 승인
         service.approve(applicationId);
-        sse.broadcast("changed");
         return ResponseEntity.ok().build();
     }
 
@@ -76,15 +162,33 @@ public class ApiController {
     public ResponseEntity<?> reject(@PathVariable long applicationId) {
         // 신청 반려
         service.reject(applicationId);
-        sse.broadcast("changed");
         return ResponseEntity.ok().build();
     }
 
+    public record BulkReq(List<Long> ids) {}
+    public record BulkRes(int succeeded, int failed, List<LockerService.BulkItemResult> results) {}
+
+    @PostMapping("/api/admin/approve")
+    public BulkRes approveAll(@RequestBody BulkReq req) {
+        // 여러 신청 일괄 승인(한 트랜잭션, 변경 이벤트도 한 번)
+        return bulkRes(service.approveAll(req.ids()));
+    }
+
+    @PostMapping("/api/admin/reject")
+    public BulkRes rejectAll(@RequestBody BulkReq req) {
+        // 여러 신청 일괄 반려
+        return bulkRes(service.rejectAll(req.ids()));
+    }
+
+    private static BulkRes bulkRes(List<LockerService.BulkItemResult> results) {
+        int ok = (int) results.stream().filter(LockerService.BulkItemResult::ok).count();
+        return new BulkRes(ok, results.size() - ok, results);
+    }
+
     @PostMapping("/api/admin/clear/{lockerNumber}")
     public ResponseEntity<?> clear(@PathVariable int lockerNumber) {
         // 승인된 사물함 비우기
         service.clearApprovedLocker(lockerNumber);
-        sse.broadcast("changed");
         return ResponseEntity.ok().build();
     }
 
@@ -92,27 +196,48 @@ public class ApiController {
     public ResponseEntity<?> reset() {
         // 전체 초기화
         service.resetAll();
-        sse.broadcast("changed");
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/api/admin/lottery")
+    public LotteryService.Status lotteryStatus() {
+        // 추첨 모드 단계/응모 수/마지막 추첨 결과(시간 포함)
+        return lottery.status();
+    }
+
+    @PostMapping("/api/admin/lottery/draw")
+    public LotteryService.DrawReport lotteryDraw(@RequestParam(required = false) Long seed) {
+        // 자동 추첨이 실패했을 때 수동 추첨(seed를 주면 같은 결과 재현)
+        return lottery.drawNow(seed);
+    }
+
+    @GetMapping("/api/admin/hashing/stats")
+    public LookupCodeHasher.Stats hashingStats() {
+        // 확인코드 해시 풀 상태(대기열 깊이, 대기 시간, 거절 수)
+        return hasher.stats();
+    }
+
     public record AdminAssignReq(String studentId, String name, String phone) {}
     public record AdminAssignRes(String lookupCode) {}
 
     @PostMapping("/api/admin/assign/{lockerNumber}")
     public ResponseEntity<?> adminAssign(
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @PathVariable int lockerNumber,
             @RequestBody AdminAssignReq req
     ) {
-        // 관리자 직접 지정 후 즉시 승인
-        String code = service.adminAssignApproved(
-                req.studentId().trim(),
-                req.name().trim(),
-                req.phone().trim(),
-                lockerNumber
-        );
-        sse.broadcast("changed");
-        return ResponseEntity.ok(new AdminAssignRes(code));
+        // 관리자 직접 지정 후 즉시 승인(같은 Idempotency-Key의 재시도는 첫 결과 그대로)
+        return idempotency.execute("assign", idempotencyKey,
+                IdempotencyStore.fingerprint(lockerNumber, req.studentId(), req.name(), req.phone()),
+                () -> {
+                    String code = service.adminAssignApproved(
+                            req.studentId().trim(),
+                            req.name().trim(),
+                            req.phone().trim(),
+                            lockerNumber
+                    );
+                    return ResponseEntity.ok(new AdminAssignRes(code));
+                });
     }
 
     // -----------------------
@@ -121,33 +246,55 @@ public class ApiController {
 
     @GetMapping("/api/public/my-locker")
     public LockerService.MyLockerDto myLocker(
-            @RequestParam String studentId,
-            @RequestParam String code
+            @RequestParam(required = false) String studentId,
+            @RequestParam(required = false) String code,
+            @RequestParam(required = false) String token,
+            HttpServletRequest request
     ) {
         // 내 사물함 정보 조회
-        return service.getMyLocker(studentId.trim(), code.trim());
+        LookupTokenService.Claims claims = throttleLookup(request, studentId, token);
+        return service.getMyLocker(trim(studentId), trim(code), claims);
     }
 
-    public record SaveMemoReq(String studentId, String code, String memo) {}
+    public record SaveMemoReq(String studentId, String code, String token, String memo) {}
 
     @PostMapping("/api/public/my-locker/memo")
-    public ResponseEntity<?> saveMemo(@RequestBody SaveMemoReq req) {
+    public ResponseEntity<?> saveMemo(@RequestBody SaveMemoReq req, HttpServletRequest request) {
         // 사물함 메모 저장
+        LookupTokenService.Claims claims = throttleLookup(request, req.studentId(), req.token());
         service.saveMyMemo(
-                req.studentId().trim(),
-                req.code().trim(),
+                trim(req.studentId()),
+                trim(req.code()),
+                claims,
                 req.memo()
         );
         return ResponseEntity.ok().build();
     }
 
-    public record EmptyReq(String studentId, String code) {}
+    public record EmptyReq(String studentId, String code, String token) {}
 
     @PostMapping("/api/public/my-locker/empty")
-    public ResponseEntity<?> empty(@RequestBody EmptyReq req) {
+    public ResponseEntity<?> empty(@RequestBody EmptyReq req, HttpServletRequest request) {
         // 사물함 반납
-        service.emptyMyLocker(req.studentId().trim(), req.code().trim());
-        sse.broadcast("changed");
+        LookupTokenService.Claims claims = throttleLookup(request, req.studentId(), req.token());
+        service.emptyMyLocker(trim(req.studentId()), trim(req.code()), claims);
         return ResponseEntity.ok().build();
     }
+
+    private LookupTokenService.Claims throttleLookup(HttpServletRequest request, String studentId, String token) {
+        // 서비스 호출 전에 요청 제한 확인(거절이면 DB/BCrypt까지 가지 않음)
+        rateLimiter.checkIp(request.getRemoteAddr());
+        // 토큰은 여기서 한 번만 확인하고 결과(null이면 확인코드로 검증)를 서비스에 넘김
+        // 유효한 토큰이면 BCrypt가 없으므로 학번 제한은 확인코드로 검증할 때만
+        LookupTokenService.Claims claims = lookupTokens.verify(trim(token));
+        if (claims == null) {
+            rateLimiter.checkStudent(studentId);
+        }
+        return claims;
+    }
+
+    private static String trim(String s) {
+        // 토큰 방식에서는 확인코드가 없을 수 있어서 null 허용
+        return s == null ? null : s.trim();
+    }
 }
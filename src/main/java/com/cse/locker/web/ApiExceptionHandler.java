@@ -1,5 +1,7 @@
 package com.cse.locker.web;
 
+import com.cse.locker.service.ServiceBusyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -22,4 +24,26 @@ public class ApiExceptionHandler {
         // 중복 신청, 상태 불일치 등은 클라이언트 입력/상태 문제이므로 400으로 통일
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
     }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<String> handleInFlight(ConflictException e) {
+        // 같은 Idempotency-Key의 첫 요청이 아직 처리 중: 기다리지 않고 바로 409
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<String> handleBusy(ServiceBusyException e) {
+        // 대기열/처리 용량 초과: 잠시 후 다시 시도하도록 503 + Retry-After
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfterSeconds())))
+                .body(e.getMessage());
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooMany(TooManyRequestsException e) {
+        // 조회 요청 제한 초과: 429 + Retry-After
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfterSeconds())))
+                .body(e.getMessage());
+    }
 }
@@ -0,0 +1,299 @@
+package com.cse.locker.web;
+
+import com.cse.locker.config.AdmissionProperties;
+import com.cse.locker.service.LockerService;
+import com.cse.locker.service.ServiceBusyException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 신청 오픈 순간의 폭주를 받아내는 대기열(가상 대기실).
+ *
+ * /api/public/apply 요청은 대기표만 받고 바로 돌아가고, 실제 신청은 여기서
+ * 설정된 속도(초당 permitsPerSecond건)로만 LockerService에 넘긴다.
+ * 동시에 처리하는 건수도 workers개로 묶여 있어서 DB 커넥션/BCrypt가 폭주하지 않는다.
+ * 학생 화면은 대기표로 순번/예상 시간을 조회하다가 처리가 끝나면 확인코드를 받는다.
+ * 처리 중 일시적 과부하(ServiceBusyException: 해시 풀 포화 등)를 만나면 실패로 끝내지 않고
+ * Retry-After만큼 뒤에 다시 처리한다(새로 줄 선 학생보다 먼저).
+ */
+@Component
+public class ApplyAdmissionQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplyAdmissionQueue.class);
+
+    private static final long TICK_MILLIS = 100;
+    private static final int CLEANUP_EVERY_TICKS = 10;
+    // 일시적 과부하로 다시 처리하는 최대 횟수(넘으면 실패로 끝내고 학생이 다시 신청)
+    private static final int MAX_BUSY_RETRIES = 5;
+
+    public enum TicketState { WAITING, PROCESSING, DONE, FAILED }
+
+    // 학생 화면에 내려주는 대기표 상태
+    public record TicketStatus(
+            String ticket,
+            TicketState state,
+            long position,      // WAITING일 때 내 앞에 있는 인원 + 1
+            long etaSeconds,    // WAITING일 때 예상 대기 시간
+            String lookupCode,  // DONE일 때만
+            String message      // FAILED일 때만
+    ) {}
+
+    private static final class Ticket {
+        final String id;
+        final long seq;
+        final ApiController.ApplyReq req;
+
+        volatile TicketState state = TicketState.WAITING;
+        volatile String lookupCode;
+        volatile String message;
+        volatile long lastSeenAt;
+        volatile long finishedAt;
+        volatile int busyRetries;
+        volatile long retryAt;
+
+        Ticket(String id, long seq, ApiController.ApplyReq req, long now) {
+            this.id = id;
+            this.seq = seq;
+            this.req = req;
+            this.lastSeenAt = now;
+        }
+    }
+
+    private final LockerService service;
+    private final AdmissionProperties props;
+
+    private final ConcurrentLinkedQueue<Ticket> queue = new ConcurrentLinkedQueue<>();
+    // 처리 중 과부하로 되돌아온 대기표(이미 순서가 지났으므로 queue보다 먼저 꺼냄). ticker만 꺼냄
+    private final ConcurrentLinkedQueue<Ticket> retries = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> activeByStudent = new ConcurrentHashMap<>();
+
+    // 발급된 대기표 수 / 대기열에서 빠져나간 수. 둘의 차이로 순번을 계산
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong admitted = new AtomicLong();
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService workers;
+    private final Semaphore freeWorkers;
+
+    // ticker 스레드에서만 읽고 씀
+    private double permits = 0;
+    private long ticks = 0;
+
+    public ApplyAdmissionQueue(LockerService service, AdmissionProperties props) {
+        this.service = service;
+        this.props = props;
+        this.freeWorkers = new Semaphore(props.workers());
+
+        if (props.enabled()) {
+            this.ticker = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "apply-admission-ticker"));
+            AtomicInteger n = new AtomicInteger();
+            this.workers = Executors.newFixedThreadPool(props.workers(),
+                    r -> daemon(r, "apply-admission-worker-" + n.incrementAndGet()));
+            this.ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        } else {
+            this.ticker = null;
+            this.workers = null;
+        }
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    public boolean isEnabled() {
+        return props.enabled();
+    }
+
+    public synchronized TicketStatus enqueue(ApiController.ApplyReq req) {
+        // 줄 세우기 전에 값만 가볍게 확인(DB/해시 작업 없음)
+        if (isBlank(req.studentId()) || isBlank(req.name()) || isBlank(req.phone())) {
+            throw new IllegalArgumentException("학번/이름/전화번호를 모두 입력하세요.");
+        }
+        String studentId = req.studentId().trim();
+        long now = System.currentTimeMillis();
+
+        // 같은 학번이 이미 줄 서 있으면 그 대기표를 그대로 돌려줌(새로고침/재시도)
+        // 이름/전화번호까지 같을 때만: 학번만 아는 사람이 남의 대기표(확인코드)를 받아 가지 못하게
+        Ticket existing = activeByStudent.get(studentId);
+        if (existing != null) {
+            if (!sameApplicant(existing.req, req)) {
+                throw new IllegalStateException("이미 대기열에 해당 학번의 신청이 있습니다.");
+            }
+            existing.lastSeenAt = now;
+            return statusOf(existing);
+        }
+
+        if (queued.get() >= props.capacity()) {
+            throw new ServiceBusyException("신청 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요.", etaSeconds(queued.get()));
+        }
+
+        Ticket t = new Ticket(newTicketId(), issued.incrementAndGet(), req, now);
+        tickets.put(t.id, t);
+        activeByStudent.put(studentId, t);
+        queue.add(t);
+        queued.incrementAndGet();
+        return statusOf(t);
+    }
+
+    public TicketStatus poll(String ticketId) {
+        Ticket t = tickets.get(ticketId);
+        if (t == null) {
+            throw new IllegalArgumentException("없거나 만료된 대기표입니다. 다시 신청해주세요.");
+        }
+        t.lastSeenAt = System.currentTimeMillis();
+        return statusOf(t);
+    }
+
+    private TicketStatus statusOf(Ticket t) {
+        return switch (t.state) {
+            case WAITING -> {
+                long position = Math.max(1, t.seq - admitted.get());
+                yield new TicketStatus(t.id, t.state, position, etaSeconds(position), null, null);
+            }
+            case PROCESSING -> new TicketStatus(t.id, t.state, 0, 0, null, null);
+            case DONE -> new TicketStatus(t.id, t.state, 0, 0, t.lookupCode, null);
+            case FAILED -> new TicketStatus(t.id, t.state, 0, 0, null, t.message);
+        };
+    }
+
+    private long etaSeconds(long position) {
+        return (position + props.permitsPerSecond() - 1) / props.permitsPerSecond();
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // 토큰 버킷: 틱마다 속도만큼 적립하되 1초치 이상은 쌓아두지 않음
+            double rate = props.permitsPerSecond();
+            permits = Math.min(permits + rate * TICK_MILLIS / 1000.0, Math.max(1.0, rate));
+
+            while (permits >= 1 && freeWorkers.tryAcquire()) {
+                Ticket t = nextReady(now);
+                if (t == null) {
+                    freeWorkers.release();
+                    break;
+                }
+
+                if (now - t.lastSeenAt > props.abandonAfter().toMillis()) {
+                    // 순번 조회가 끊긴 대기표는 처리하지 않음(확인코드를 받아갈 사람이 없음)
+                    finish(t, TicketState.FAILED, null, "대기 중 연결이 끊겨 신청이 취소되었습니다. 다시 신청해주세요.");
+                    freeWorkers.release();
+                    continue;
+                }
+
+                permits -= 1;
+                t.state = TicketState.PROCESSING;
+                workers.execute(() -> process(t));
+            }
+
+            if (++ticks % CLEANUP_EVERY_TICKS == 0) {
+                removeExpired(now);
+            }
+        } catch (RuntimeException e) {
+            // 예외가 새면 scheduleAtFixedRate가 멈추므로 여기서 끊음
+            log.warn("신청 대기열 처리 중 오류", e);
+        }
+    }
+
+    private Ticket nextReady(long now) {
+        // 다시 처리할 시각이 된 대기표가 먼저
+        Ticket r = retries.peek();
+        if (r != null && r.retryAt <= now) return retries.poll();
+
+        Ticket t = queue.poll();
+        if (t != null) {
+            queued.decrementAndGet();
+            admitted.incrementAndGet();
+        }
+        return t;
+    }
+
+    private void process(Ticket t) {
+        try {
+            ApiController.ApplyReq req = t.req;
+            String code = service.apply(
+                    req.studentId().trim(),
+                    req.name().trim(),
+                    req.phone().trim(),
+                    req.lockerNumber()
+            );
+            finish(t, TicketState.DONE, code, null);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            finish(t, TicketState.FAILED, null, e.getMessage());
+        } catch (ServiceBusyException e) {
+            retryLater(t, e);
+        } catch (RuntimeException e) {
+            log.warn("대기열 신청 처리 실패", e);
+            finish(t, TicketState.FAILED, null, "신청 처리 중 오류가 발생했습니다. 다시 시도해주세요.");
+        } finally {
+            freeWorkers.release();
+        }
+    }
+
+    private void retryLater(Ticket t, ServiceBusyException e) {
+        // 일시적 과부하: 신청 자체는 유효하므로 WAITING으로 되돌려 Retry-After 뒤에 다시 처리
+        if (++t.busyRetries > MAX_BUSY_RETRIES) {
+            finish(t, TicketState.FAILED, null, e.getMessage());
+            return;
+        }
+        t.retryAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(Math.max(1, e.getRetryAfterSeconds()));
+        t.state = TicketState.WAITING;
+        retries.add(t);
+    }
+
+    private void finish(Ticket t, TicketState state, String lookupCode, String message) {
+        t.lookupCode = lookupCode;
+        t.message = message;
+        t.finishedAt = System.currentTimeMillis();
+        t.state = state;
+        activeByStudent.remove(t.req.studentId().trim(), t);
+    }
+
+    private void removeExpired(long now) {
+        long ttl = props.resultTtl().toMillis();
+        tickets.values().removeIf(t ->
+                (t.state == TicketState.DONE || t.state == TicketState.FAILED) && now - t.finishedAt > ttl);
+    }
+
+    private String newTicketId() {
+        byte[] b = new byte[16];
+        random.nextBytes(b);
+        return HexFormat.of().formatHex(b);
+    }
+
+    private static boolean sameApplicant(ApiController.ApplyReq a, ApiController.ApplyReq b) {
+        return a.name().trim().equals(b.name().trim()) && a.phone().trim().equals(b.phone().trim());
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (ticker != null) ticker.shutdownNow();
+        if (workers != null) workers.shutdown();
+    }
+}
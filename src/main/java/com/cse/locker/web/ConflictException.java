@@ -0,0 +1,12 @@
+package com.cse.locker.web;
+
+/**
+ * 같은 요청이 아직 처리 중일 때 던지는 예외(Idempotency-Key 재시도가 첫 요청보다 먼저 옴).
+ * ApiExceptionHandler에서 409로 바뀐다.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
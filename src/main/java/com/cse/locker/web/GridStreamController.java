@@ -0,0 +1,116 @@
+package com.cse.locker.web;
+
+import com.cse.locker.config.SseProperties;
+import com.cse.locker.service.LockerChange;
+import com.cse.locker.service.LockerChangeEvent;
+import com.cse.locker.service.LockerService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 학생 화면용 사물함 그리드 실시간 스트림.
+ *
+ * 커밋된 변경을 바로 보내지 않고 사물함 번호별로 마지막 상태만 모아 두었다가
+ * app.sse.public-interval마다 한 번 "grid" 이벤트로 내보낸다.
+ * 신청이 몰려 초당 수백 건이 바뀌어도 학생 탭 하나가 받는 이벤트는 간격당 최대 한 개.
+ * 재전송 버퍼는 두지 않는다. 다시 붙으면 "connected"를 받고 그리드를 한 번 새로 읽는다.
+ */
+@RestController
+public class GridStreamController {
+
+    // 이벤트 본문: 순번 + 이번 간격에 바뀐 칸들(칸마다 최종 상태 하나)
+    public record GridDelta(long seq, List<LockerService.LockerDto> lockers) {}
+
+    private final ObjectMapper objectMapper;
+    private final SseChannel channel;
+
+    private final Set<DataWithMediaType> connectedFrame = SseEmitter.event().name("connected").data("ok").build();
+    private final Set<DataWithMediaType> resetFrame = SseEmitter.event().name("reset").data("reload").build();
+
+    // lock으로 보호: 다음 전송 때 내보낼 칸별 최종 상태
+    private final Object lock = new Object();
+    private Map<Integer, LockerService.LockerDto> pending = new LinkedHashMap<>();
+    private boolean resetPending = false;
+    private long seq = 0;
+
+    public GridStreamController(SseHub hub, SseProperties props, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.channel = hub.newChannel("public-grid", props.publicMaxSubscribers());
+        hub.scheduleAtFixedRate(this::flush, props.publicInterval());
+    }
+
+    @GetMapping("/api/public/lockers/stream")
+    public SseEmitter subscribe() {
+        return channel.open(List.of(connectedFrame));
+    }
+
+    @EventListener
+    public void onLockerChange(LockerChangeEvent event) {
+        synchronized (lock) {
+            if (event.reset()) {
+                // 전체 초기화 뒤에는 칸 단위 변경이 의미 없음
+                resetPending = true;
+                pending.clear();
+                return;
+            }
+            for (LockerChange c : event.changes()) {
+                pending.put(c.lockerNumber(), toDto(c));
+            }
+        }
+    }
+
+    void flush() {
+        Map<Integer, LockerService.LockerDto> batch;
+        boolean reset;
+        synchronized (lock) {
+            if (!resetPending && pending.isEmpty()) return;
+            batch = pending;
+            reset = resetPending;
+            pending = new LinkedHashMap<>();
+            resetPending = false;
+        }
+
+        // 구독자가 없으면 직렬화도 하지 않음
+        if (channel.subscriberCount() == 0) return;
+
+        if (reset) {
+            channel.publish(resetFrame);
+            return;
+        }
+
+        GridDelta delta = new GridDelta(++seq, new ArrayList<>(batch.values()));
+        channel.publish(SseEmitter.event()
+                .name("grid")
+                .data(toJson(delta))
+                .build());
+    }
+
+    public SseChannel channel() {
+        return channel;
+    }
+
+    private static LockerService.LockerDto toDto(LockerChange c) {
+        String status = c.state();
+        if ("RESERVED".equals(status)) status = "PENDING"; // UI 표시용 변환(/api/public/lockers와 동일)
+        return new LockerService.LockerDto(c.lockerNumber(), status, c.studentId());
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("SSE 이벤트 직렬화 실패", e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.cse.locker.web;
+
+import com.cse.locker.config.IdempotencyProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 헤더가 붙은 신청/직권 배정 요청의 첫 결과를 보관했다가 재시도에 그대로 돌려준다.
+ *
+ * 학생이 응답을 못 받고 다시 보내면, 재시도는 DB/해시를 전혀 거치지 않고 첫 요청의 결과
+ * (확인코드 또는 실패 사유)를 받는다. 보관된 결과는 키와 요청 내용(학번, 사물함 번호 등)이
+ * 모두 같을 때만 돌려준다. 보낸 IP는 보지 않는다(프록시 뒤이거나 모바일에서 IP가 바뀌어도 같은 결과).
+ * 같은 키로 다른 내용을 보내면 409, 첫 요청이 아직 처리 중이어도 기다리지 않고 바로 409를 돌려준다.
+ * 503/429 같은 일시적 실패는 보관하지 않아서 재시도가 다시 실행된다.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    // 보관된 응답을 돌려줄 때 붙이는 헤더
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final String IN_FLIGHT_MESSAGE = "같은 요청을 처리하고 있습니다. 잠시 후 다시 시도해주세요.";
+    private static final String MISMATCH_MESSAGE = "같은 Idempotency-Key로 다른 내용의 요청을 보냈습니다.";
+
+    // 첫 요청의 결과. error가 있으면 400(본문은 메시지), 없으면 status + body
+    private record Stored(String fingerprint, int status, Object body, String error) {}
+
+    private final Cache<String, CompletableFuture<Stored>> cache;
+    private final Counter replayed;
+
+    public IdempotencyStore(IdempotencyProperties props, MeterRegistry meters) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.maximumSize())
+                .expireAfterWrite(props.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meters, cache, "idempotency");
+        this.replayed = Counter.builder("idempotency.replayed").register(meters);
+    }
+
+    /**
+     * @param scope       엔드포인트 구분(키는 엔드포인트마다 따로)
+     * @param key         Idempotency-Key 헤더 값(없으면 그냥 실행)
+     * @param fingerprint 요청 본문 요약. 보관된 결과는 이 값까지 같아야 돌려주고, 다르면 409
+     */
+    public ResponseEntity<?> execute(String scope, String key, String fingerprint,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) return action.get();
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key는 " + MAX_KEY_LENGTH + "자 이하여야 합니다.");
+        }
+
+        String cacheKey = scope + ":" + key.trim();
+        CompletableFuture<Stored> mine = new CompletableFuture<>();
+        CompletableFuture<Stored> first = cache.asMap().putIfAbsent(cacheKey, mine);
+        if (first != null) return replay(first, fingerprint);
+
+        try {
+            ResponseEntity<?> res = action.get();
+            mine.complete(new Stored(fingerprint, res.getStatusCode().value(), res.getBody(), null));
+            return res;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // 입력/상태 오류(중복 신청, 이미 잡힌 사물함 등)도 첫 결과로 보관: 재시도해도 같은 답
+            mine.complete(new Stored(fingerprint, 400, null, e.getMessage()));
+            throw e;
+        } catch (RuntimeException e) {
+            // 일시적 오류는 보관하지 않음(다음 재시도는 다시 실행)
+            cache.asMap().remove(cacheKey, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<?> replay(CompletableFuture<Stored> first, String fingerprint) {
+        // 첫 요청이 아직 처리 중(또는 일시적 오류로 방금 지워지는 중)이면 기다리지 않음
+        if (!first.isDone() || first.isCompletedExceptionally()) {
+            throw new ConflictException(IN_FLIGHT_MESSAGE);
+        }
+        Stored stored = first.join();
+
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new ConflictException(MISMATCH_MESSAGE);
+        }
+
+        replayed.increment();
+        if (stored.error() != null) {
+            return ResponseEntity.badRequest().header(REPLAYED_HEADER, "true").body(stored.error());
+        }
+        return ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true").body(stored.body());
+    }
+
+    public static String fingerprint(Object... parts) {
+        // 요청 값들을 구분자로 이어 붙인 문자열(작아서 해시하지 않고 그대로 보관)
+        StringBuilder sb = new StringBuilder();
+        for (Object p : parts) {
+            sb.append(p).append('\u001F');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,175 @@
+package com.cse.locker.web;
+
+import com.cse.locker.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 학생 조회 API(my-status, my-locker, 메모, 반납) 요청 제한.
+ *
+ * 학번별/IP별 토큰 버킷을 메모리에 두고, 컨트롤러에서 서비스 호출 전에 확인한다.
+ * 거절은 해시 한 번 + 락 하나로 끝나서 DB 조회나 BCrypt까지 가지 않는다.
+ * 버킷 표는 stripes개로 나눠 각자 락을 잡으므로 서로 다른 키끼리는 거의 부딪히지 않는다.
+ *
+ * 표가 가득 차면 먼저 다시 다 찬(처음 보는 키와 같은) 버킷을 버린다. 그래도 가득이면
+ * 가장 오래 안 쓴 버킷 하나를 버리고 새 키를 받는다(처음 보는 키를 거절하지 않음).
+ * 키를 바꿔 가며 보내 새 학생을 막을 수는 없고, 남의 버킷을 밀어내려면 그 줄무늬를
+ * 통째로 새 키로 채워야 한다(그만큼의 요청은 IP 제한에 먼저 걸림).
+ */
+@Component
+public class LookupRateLimiter {
+
+    private static final double NANOS_PER_MINUTE = 60_000_000_000d;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+    }
+
+    // 키 종류(학번/IP) 하나의 버킷 표
+    private static final class Limit {
+        final double burst;
+        final double tokensPerNano;
+        final int maxPerStripe;
+        final Map<String, Bucket>[] stripes;
+        final Counter allowed;
+        final Counter rejected;
+        final Counter evicted;
+
+        @SuppressWarnings("unchecked")
+        Limit(String name, int burst, int perMinute, int stripeCount, int maxKeys, MeterRegistry meters) {
+            this.burst = burst;
+            this.tokensPerNano = perMinute / NANOS_PER_MINUTE;
+            this.maxPerStripe = Math.max(16, maxKeys / stripeCount);
+            this.stripes = new Map[stripeCount];
+            for (int i = 0; i < stripeCount; i++) stripes[i] = new HashMap<>();
+
+            this.allowed = Counter.builder("lookup.ratelimit.requests")
+                    .tag("limit", name).tag("result", "allowed").register(meters);
+            this.rejected = Counter.builder("lookup.ratelimit.requests")
+                    .tag("limit", name).tag("result", "rejected").register(meters);
+            this.evicted = Counter.builder("lookup.ratelimit.evicted")
+                    .tag("limit", name).register(meters);
+            Gauge.builder("lookup.ratelimit.keys", this, Limit::size).tag("limit", name).register(meters);
+        }
+
+        // 통과면 0, 아니면 토큰 하나가 찰 때까지 남은 시간(ns)
+        long tryAcquire(String key, long now) {
+            Map<String, Bucket> stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+            synchronized (stripe) {
+                Bucket b = stripe.get(key);
+                if (b == null) {
+                    if (stripe.size() >= maxPerStripe) {
+                        evictRefilled(stripe, now);
+                        if (stripe.size() >= maxPerStripe) {
+                            // 전부 차는 중(키를 바꿔 가며 보내는 중): 새 키를 거절하지 않고 가장 오래 안 쓴 버킷을 버림
+                            evictLeastRecent(stripe);
+                        }
+                    }
+                    stripe.put(key, new Bucket(burst - 1, now));
+                    allowed.increment();
+                    return 0;
+                }
+
+                b.tokens = Math.min(burst, b.tokens + (now - b.refilledAt) * tokensPerNano);
+                b.refilledAt = now;
+                if (b.tokens >= 1) {
+                    b.tokens -= 1;
+                    allowed.increment();
+                    return 0;
+                }
+                rejected.increment();
+                return (long) Math.ceil((1 - b.tokens) / tokensPerNano);
+            }
+        }
+
+        private void evictRefilled(Map<String, Bucket> stripe, long now) {
+            // 다 찬 버킷은 지워도 처음 보는 키와 같으므로 이것만 버림
+            stripe.values().removeIf(b -> refillNanos(b, now) <= 0);
+        }
+
+        private void evictLeastRecent(Map<String, Bucket> stripe) {
+            // refilledAt = 마지막으로 쓴 시각. 가득 찬 줄무늬에서만 도므로 평소에는 비용 없음
+            String oldest = null;
+            long oldestAt = 0;
+            for (Map.Entry<String, Bucket> e : stripe.entrySet()) {
+                // nanoTime 값이라 뺄셈으로 비교
+                if (oldest == null || e.getValue().refilledAt - oldestAt < 0) {
+                    oldest = e.getKey();
+                    oldestAt = e.getValue().refilledAt;
+                }
+            }
+            if (oldest != null) {
+                stripe.remove(oldest);
+                evicted.increment();
+            }
+        }
+
+        // 버킷이 다시 다 찰 때까지 남은 시간(ns, 이미 찼으면 0 이하)
+        private long refillNanos(Bucket b, long now) {
+            double tokens = b.tokens + (now - b.refilledAt) * tokensPerNano;
+            return (long) Math.ceil((burst - tokens) / tokensPerNano);
+        }
+
+        double size() {
+            int n = 0;
+            for (Map<String, Bucket> stripe : stripes) {
+                synchronized (stripe) {
+                    n += stripe.size();
+                }
+            }
+            return n;
+        }
+    }
+
+    private final boolean enabled;
+    private final Limit byStudent;
+    private final Limit byIp;
+
+    public LookupRateLimiter(RateLimitProperties props, MeterRegistry meters) {
+        this.enabled = props.enabled();
+        int stripes = Integer.highestOneBit(Math.max(1, props.stripes() - 1)) << 1;
+        this.byStudent = new Limit("student", props.studentBurst(), props.studentPerMinute(),
+                stripes, props.maxKeys(), meters);
+        this.byIp = new Limit("ip", props.ipBurst(), props.ipPerMinute(),
+                stripes, props.maxKeys(), meters);
+    }
+
+    public void checkIp(String ip) {
+        // 모든 조회 요청에 적용(DB 조회 폭주 방지)
+        if (!enabled || ip == null) return;
+        long wait = byIp.tryAcquire(ip, System.nanoTime());
+        if (wait > 0) {
+            throw new TooManyRequestsException("요청이 너무 많습니다. 잠시 후 다시 시도해주세요.", toSeconds(wait));
+        }
+    }
+
+    public void checkStudent(String studentId) {
+        // 확인코드(BCrypt) 검증/발급이 일어나는 요청에만 적용(확인코드 추측, 해시 폭주 방지)
+        if (!enabled || studentId == null || studentId.isBlank()) return;
+        long wait = byStudent.tryAcquire(studentId.trim(), System.nanoTime());
+        if (wait > 0) {
+            throw new TooManyRequestsException("확인코드 시도가 너무 많습니다. 잠시 후 다시 시도해주세요.", toSeconds(wait));
+        }
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+
+    private static int spread(int h) {
+        // HashMap과 같은 방식으로 상위 비트를 섞어 줄무늬가 고르게 나뉘게 함
+        return h ^ (h >>> 16);
+    }
+}
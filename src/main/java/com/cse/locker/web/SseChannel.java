@@ -0,0 +1,145 @@
+package com.cse.locker.web;
+
+import com.cse.locker.service.ServiceBusyException;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * 같은 이벤트를 받는 SSE 구독자 묶음 하나.
+ *
+ * 구독자마다 크기가 정해진 송신 큐를 두고, 실제 전송은 SseHub의 디스패처 스레드가 한다.
+ * 변경을 커밋한 요청 스레드는 큐에 넣기만 하고 바로 돌아가므로 느린 클라이언트 하나가
+ * 신청/승인 응답을 늦추지 않는다. 큐가 꽉 찬 구독자는 따라오지 못하는 것으로 보고 끊는다
+ * (브라우저는 Last-Event-ID로 다시 붙는다).
+ */
+public class SseChannel {
+
+    private final String name;
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final Executor dispatcher;
+    private final Timer fanOutTimer;
+    private final LongFunction<SseEmitter> emitterFactory;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder published = new LongAdder();
+    private final AtomicLong lastFanOutNanos = new AtomicLong();
+
+    SseChannel(String name, int maxSubscribers, int queueCapacity, long timeoutMillis, Executor dispatcher,
+               Timer fanOutTimer, LongFunction<SseEmitter> emitterFactory) {
+        this.name = name;
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+        this.dispatcher = dispatcher;
+        this.fanOutTimer = fanOutTimer;
+        this.emitterFactory = emitterFactory;
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicBoolean draining = new AtomicBoolean(false);
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        boolean offer(Set<DataWithMediaType> frame) {
+            if (closed) return true;
+            if (!queue.offer(frame)) return false;
+            schedule();
+            return true;
+        }
+
+        void schedule() {
+            // 구독자 하나는 동시에 한 스레드만 비움(이벤트 순서 유지)
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                Set<DataWithMediaType> frame;
+                while (!closed && (frame = queue.poll()) != null) {
+                    emitter.send(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // 끊긴 연결(또는 이미 완료된 emitter)
+                close(false);
+            } finally {
+                draining.set(false);
+                if (!closed && !queue.isEmpty()) schedule();
+            }
+        }
+
+        void close(boolean completeEmitter) {
+            if (closed) return;
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            if (completeEmitter) emitter.complete();
+        }
+    }
+
+    public SseEmitter open(List<Set<DataWithMediaType>> initialFrames) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceBusyException("실시간 연결이 너무 많습니다. 잠시 후 다시 시도해주세요.", 10);
+        }
+
+        SseEmitter emitter = emitterFactory.apply(timeoutMillis);
+        Subscriber s = new Subscriber(emitter);
+
+        // 연결 종료/타임아웃/에러 시 목록에서 제거
+        emitter.onCompletion(() -> s.close(false));
+        emitter.onTimeout(() -> s.close(false));
+        emitter.onError(e -> s.close(false));
+
+        for (Set<DataWithMediaType> frame : initialFrames) {
+            if (!s.queue.offer(frame)) break;
+        }
+        subscribers.add(s);
+        s.schedule();
+        return emitter;
+    }
+
+    public void publish(Set<DataWithMediaType> frame) {
+        // 큐에 넣기만 함(블로킹 없음). 넣지 못한 구독자는 끊음
+        long start = System.nanoTime();
+        for (Subscriber s : subscribers) {
+            if (!s.offer(frame)) {
+                evicted.increment();
+                s.close(true);
+            }
+        }
+        published.increment();
+        long elapsed = System.nanoTime() - start;
+        lastFanOutNanos.set(elapsed);
+        fanOutTimer.record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    public String name() { return name; }
+    public int queueCapacity() { return queueCapacity; }
+    public int subscriberCount() { return subscribers.size(); }
+    public long evictedCount() { return evicted.sum(); }
+    public long publishedCount() { return published.sum(); }
+    public long lastFanOutNanos() { return lastFanOutNanos.get(); }
+}
@@ -1,52 +1,146 @@
 package com.cse.locker.web;
 
+import com.cse.locker.config.SseProperties;
+import com.cse.locker.service.LockerChange;
+import com.cse.locker.service.LockerChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 @RestController
 public class SseController {
 
-    // 현재 연결된 SSE 클라이언트들을 보관
-    private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+    // 재연결 시 Last-Event-ID 이후를 다시 보내주기 위해 최근 이벤트를 보관하는 개수
+    private static final int REPLAY_BUFFER_SIZE = 1024;
+
+    // 이벤트 본문: 순번 + 변경 목록
+    public record ChangesPayload(long seq, List<LockerChange> changes) {}
+
+    // 보낸 이벤트(직렬화까지 끝난 프레임)를 순번과 함께 보관
+    private record Sent(long seq, Set<DataWithMediaType> frame) {}
+
+    private final ObjectMapper objectMapper;
+    private final SseChannel adminChannel;
+
+    // 이벤트 ID = "서버 기동 시각-순번". 재시작 전 ID로 재연결하면 기동 시각이 달라서 전체 재조회로 처리됨
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private long seq = 0;
+    private final ArrayDeque<Sent> recent = new ArrayDeque<>();
+
+    public SseController(SseHub hub, SseProperties props, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.adminChannel = hub.newChannel("admin", props.adminMaxSubscribers());
+    }
 
     @GetMapping("/sse/admin")
-    public SseEmitter subscribe() {
-        // timeout 0L = 연결 제한 없이 유지
-        SseEmitter emitter = new SseEmitter(0L);
-        emitters.add(emitter);
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        // 등록과 놓친 이벤트 재전송을 broadcast와 같은 락 안에서 해야 중간 이벤트가 빠지거나 겹치지 않음
+        synchronized (this) {
+            List<Set<DataWithMediaType>> initial = new ArrayList<>();
+
+            if (lastEventId == null || lastEventId.isBlank()) {
+                // 최초 연결 확인용 이벤트 전송
+                initial.add(SseEmitter.event()
+                        .name("connected")
+                        .data("ok")
+                        .build());
+            } else {
+                List<Sent> missed = missedSince(lastEventId);
+                if (missed == null || missed.size() > adminChannel.queueCapacity()) {
+                    // 버퍼 밖이거나 다른 기동의 ID: 전체를 다시 읽으라고 알림
+                    initial.add(resetFrame(seq));
+                } else {
+                    for (Sent s : missed) initial.add(s.frame());
+                }
+            }
+
+            return adminChannel.open(initial);
+        }
+    }
+
+    @EventListener
+    public void onLockerChange(LockerChangeEvent event) {
+        // 커밋된 변경 묶음마다 한 번씩 전파
+        broadcast(event);
+    }
+
+    public synchronized void broadcast(LockerChangeEvent event) {
+        // 순번을 매기고 프레임을 한 번만 만들어서 구독자 큐에 넣기만 함(전송은 디스패처가)
+        long next = ++seq;
 
-        // 연결 종료/타임아웃/에러 시 목록에서 제거
-        emitter.onCompletion(() -> emitters.remove(emitter));
-        emitter.onTimeout(() -> emitters.remove(emitter));
-        emitter.onError(e -> emitters.remove(emitter));
+        Set<DataWithMediaType> frame;
+        if (event.reset()) {
+            // 전체 초기화는 칸 단위로 보내지 않음. 버퍼도 비워서 이전 ID로는 재전송하지 않게 함
+            recent.clear();
+            frame = resetFrame(next);
+        } else {
+            frame = SseEmitter.event()
+                    .id(eventId(next))
+                    .name("changes")
+                    .data(toJson(new ChangesPayload(next, event.changes())))
+                    .build();
+            recent.addLast(new Sent(next, frame));
+            while (recent.size() > REPLAY_BUFFER_SIZE) recent.removeFirst();
+        }
+
+        adminChannel.publish(frame);
+    }
+
+    public SseChannel adminChannel() {
+        return adminChannel;
+    }
+
+    private Set<DataWithMediaType> resetFrame(long n) {
+        return SseEmitter.event()
+                .id(eventId(n))
+                .name("reset")
+                .data("reload")
+                .build();
+    }
 
-        // 최초 연결 확인용 이벤트 전송
+    private String toJson(Object payload) {
         try {
-            emitter.send(SseEmitter.event()
-                    .name("connected")
-                    .data("ok"));
-        } catch (IOException ignored) {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("SSE 이벤트 직렬화 실패", e);
         }
+    }
 
-        return emitter;
+    private String eventId(long n) {
+        return epoch + "-" + n;
     }
 
-    public void broadcast(String eventName) {
-        // 모든 연결된 클라이언트에게 이벤트 전파
-        for (SseEmitter emitter : emitters) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name(eventName)
-                        .data("update"));
-            } catch (IOException e) {
-                // 전송 실패한 연결은 제거
-                emitters.remove(emitter);
-            }
+    private List<Sent> missedSince(String lastEventId) {
+        // null = 재전송으로 메울 수 없음(전체 재조회 필요)
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash <= 0 || !epoch.equals(lastEventId.substring(0, dash))) return null;
+
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (last > seq) return null;
+        if (last == seq) return List.of();
+
+        // 버퍼의 가장 오래된 이벤트가 last 바로 다음이 아니면 중간이 빠진 것
+        if (recent.isEmpty() || recent.peekFirst().seq() > last + 1) return null;
+
+        List<Sent> out = new ArrayList<>();
+        for (Sent s : recent) {
+            if (s.seq() > last) out.add(s);
         }
+        return out;
     }
 }
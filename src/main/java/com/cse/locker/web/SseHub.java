@@ -0,0 +1,126 @@
+package com.cse.locker.web;
+
+import com.cse.locker.config.SseProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+/**
+ * SSE 채널들이 같이 쓰는 전송 스레드(디스패처)와 스케줄러(하트비트, 묶음 전송).
+ */
+@Component
+public class SseHub {
+
+    private static final Logger log = LoggerFactory.getLogger(SseHub.class);
+
+    private final SseProperties props;
+    private final MeterRegistry meters;
+    private final LongFunction<SseEmitter> emitterFactory;
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService scheduler;
+    private final List<SseChannel> channels = new CopyOnWriteArrayList<>();
+
+    // 하트비트는 내용이 없는 주석 한 줄. 모든 구독자가 같은 프레임을 공유함
+    private final Set<DataWithMediaType> heartbeatFrame = SseEmitter.event().comment("hb").build();
+
+    @Autowired
+    public SseHub(SseProperties props, MeterRegistry meters) {
+        this(props, meters, SseEmitter::new);
+    }
+
+    // 벤치마크처럼 실제 HTTP 응답 없이 돌릴 때 emitter를 바꿔 끼우는 용도
+    SseHub(SseProperties props, MeterRegistry meters, LongFunction<SseEmitter> emitterFactory) {
+        this.props = props;
+        this.meters = meters;
+        this.emitterFactory = emitterFactory;
+
+        AtomicInteger n = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(props.dispatcherThreads(), r -> {
+            Thread t = new Thread(r, "sse-dispatch-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sse-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+
+        scheduleAtFixedRate(this::sendHeartbeats, props.heartbeat());
+    }
+
+    public void scheduleAtFixedRate(Runnable task, Duration period) {
+        long millis = period.toMillis();
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // 예외가 새면 scheduleAtFixedRate가 멈추므로 여기서 끊음
+                log.warn("SSE 예약 작업 실패", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public SseChannel newChannel(String name, int maxSubscribers) {
+        // publish 한 번(모든 구독자 큐에 넣기)에 걸린 시간
+        Timer fanOut = Timer.builder("sse.fanout")
+                .tag("channel", name)
+                .publishPercentileHistogram()
+                .register(meters);
+
+        SseChannel channel = new SseChannel(name, maxSubscribers, props.queueCapacity(),
+                props.timeout().toMillis(), dispatcher, fanOut, emitterFactory);
+        channels.add(channel);
+
+        Gauge.builder("sse.subscribers", channel, SseChannel::subscriberCount)
+                .tag("channel", name)
+                .register(meters);
+        FunctionCounter.builder("sse.evicted", channel, SseChannel::evictedCount)
+                .tag("channel", name)
+                .register(meters);
+        FunctionCounter.builder("sse.published", channel, SseChannel::publishedCount)
+                .tag("channel", name)
+                .register(meters);
+        return channel;
+    }
+
+    public List<SseChannel> channels() {
+        return List.copyOf(channels);
+    }
+
+    private void sendHeartbeats() {
+        // 하트비트도 일반 이벤트처럼 큐로 들어가서, 큐가 막힌 연결은 여기서 걸러짐
+        for (SseChannel channel : channels) {
+            try {
+                channel.publish(heartbeatFrame);
+            } catch (RuntimeException ignored) {
+                // 한 채널 문제로 스케줄이 멈추지 않게 함
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+}
@@ -0,0 +1,19 @@
+package com.cse.locker.web;
+
+/**
+ * 요청 제한(LookupRateLimiter)에 걸렸을 때 던지는 예외.
+ * ApiExceptionHandler에서 429 + Retry-After로 바뀐다.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,28 @@
+-- 기존 ddl-auto: update가 만들던 스키마 그대로(이미 테이블이 있는 DB는 baseline으로 건너뜀)
+
+create table if not exists admin_user (
+    id       bigint generated by default as identity primary key,
+    username varchar(255),
+    password varchar(255),
+    role     varchar(255)
+);
+
+create table if not exists lockers (
+    locker_number       integer      not null primary key,
+    state               varchar(255) not null,
+    reserved_student_id varchar(255),
+    -- 한 학생은 동시에 사물함 하나만 잡을 수 있음(null은 여러 개 허용)
+    constraint uk_lockers_reserved_student_id unique (reserved_student_id)
+);
+
+create table if not exists applications (
+    id               bigint generated by default as identity primary key,
+    student_id       varchar(255)                not null,
+    name             varchar(255)                not null,
+    phone            varchar(255)                not null,
+    locker_number    integer                     not null,
+    status           varchar(255)                not null,
+    created_at       timestamp(6) with time zone not null,
+    memo             text,
+    lookup_code_hash varchar(255)
+);
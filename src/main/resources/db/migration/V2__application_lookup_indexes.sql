@@ -0,0 +1,8 @@
+-- 신청/조회마다 도는 학번별 최신 신청 조회(findTopByStudentId...OrderByIdDesc)
+create index if not exists idx_applications_student_id_id on applications (student_id, id desc);
+
+-- 관리자 대기/승인 목록(findByStatusOrderByIdAsc, CSV 내보내기)
+create index if not exists idx_applications_status_id on applications (status, id);
+
+-- 사물함 비우기/반려 시 해당 번호 신청 삭제(deleteByLockerNumber)
+create index if not exists idx_applications_locker_number on applications (locker_number);
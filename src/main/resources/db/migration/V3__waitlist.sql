@@ -0,0 +1,11 @@
+-- 빈 사물함이 없을 때의 대기 명단(먼저 등록한 순서 = id 순서)
+create table if not exists waitlist_entries (
+    id               bigint generated by default as identity primary key,
+    student_id       varchar(255)                not null,
+    name             varchar(255)                not null,
+    phone            varchar(255)                not null,
+    lookup_code_hash varchar(255)                not null,
+    created_at       timestamp(6) with time zone not null,
+    -- 한 학생은 한 번만 대기
+    constraint uk_waitlist_entries_student_id unique (student_id)
+);
@@ -0,0 +1,26 @@
+-- 추첨 모드 응모(희망 사물함만 기록, 추첨이 끝나면 비움)
+create table if not exists lottery_entries (
+    id               bigint generated by default as identity primary key,
+    student_id       varchar(255)                not null,
+    name             varchar(255)                not null,
+    phone            varchar(255)                not null,
+    lookup_code_hash varchar(255)                not null,
+    -- 희망 사물함 번호(쉼표 구분, 앞쪽이 우선). 비어 있으면 아무 사물함
+    choices          varchar(255)                not null,
+    created_at       timestamp(6) with time zone not null,
+    constraint uk_lottery_entries_student_id unique (student_id)
+);
+
+-- 추첨 기록(같은 seed로 다시 돌리면 같은 결과인지 확인할 수 있게)
+create table if not exists lottery_draws (
+    id           bigint generated by default as identity primary key,
+    seed         bigint                      not null,
+    entrants     integer                     not null,
+    assigned     integer                     not null,
+    waitlisted   integer                     not null,
+    skipped      integer                     not null,
+    load_millis  bigint                      not null,
+    draw_millis  bigint                      not null,
+    write_millis bigint                      not null,
+    drawn_at     timestamp(6) with time zone not null
+);
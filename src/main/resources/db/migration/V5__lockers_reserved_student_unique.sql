@@ -0,0 +1,5 @@
+-- 한 학생은 동시에 사물함 하나만(uk_lockers_reserved_student_id).
+-- V1에도 있지만 ddl-auto로 만들어진 기존 DB는 V1을 baseline으로 건너뛰므로 여기서 다시 보장함.
+-- 새 DB는 V1의 제약이 같은 이름의 인덱스를 이미 만들었으므로 아무것도 하지 않음.
+-- 기존 DB에 같은 학번이 두 사물함을 잡고 있으면 여기서 실패함(정리 후 다시 기동)
+create unique index if not exists uk_lockers_reserved_student_id on lockers (reserved_student_id);
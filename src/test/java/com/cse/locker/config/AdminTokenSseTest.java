@@ -0,0 +1,76 @@
+package com.cse.locker.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseCookie;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * token 모드에서 관리자 SSE(/sse/admin)가 ASYNC 디스패치까지 로그인 상태로 도는지 확인.
+ * 세션이 없으므로 첫 디스패치에서 만든 로그인 상태가 이어지지 않으면 연결을 끝낼 때 거부된다.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:admin-sse;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                // H2는 text를 CLOB으로 만들어서 validate가 실패함(스키마는 Flyway가 이미 만듦)
+                "spring.jpa.hibernate.ddl-auto=none",
+                "app.lockers.banks[0].name=test",
+                "app.lockers.banks[0].from=1",
+                "app.lockers.banks[0].to=10",
+                "app.admin-auth.mode=token",
+                "app.admin-auth.secret=admin-sse-test-secret"
+        }
+)
+@AutoConfigureMockMvc
+class AdminTokenSseTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private AdminAuthProperties adminAuth;
+
+    @Test
+    void adminStreamKeepsLoginOnAsyncDispatch() throws Exception {
+        MvcResult started = mvc.perform(get("/sse/admin").cookie(adminCookie()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // 연결 시간 초과로 스트림을 끝냄: 컨테이너가 하듯 같은 요청을 ASYNC로 다시 디스패치
+        MockAsyncContext ctx = (MockAsyncContext) started.getRequest().getAsyncContext();
+        for (AsyncListener listener : ctx.getListeners()) {
+            listener.onTimeout(new AsyncEvent(ctx));
+        }
+
+        int finished = mvc.perform(asyncDispatch(started)).andReturn().getResponse().getStatus();
+        // 거부됐다면 로그인 페이지로 보내거나(302) 401/403이 됨
+        assertThat(finished).isNotIn(302, 401, 403);
+    }
+
+    @Test
+    void streamWithoutCookieIsRejected() throws Exception {
+        mvc.perform(get("/sse/admin"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().is3xxRedirection());
+    }
+
+    private Cookie adminCookie() {
+        ResponseCookie issued = new AdminTokenService(adminAuth).issueCookie("admin");
+        return new Cookie(issued.getName(), issued.getValue());
+    }
+}
@@ -0,0 +1,104 @@
+package com.cse.locker.service;
+
+import com.cse.locker.domain.Application;
+import com.cse.locker.domain.Locker;
+import com.cse.locker.repo.ApplicationRepository;
+import com.cse.locker.repo.LockerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 사물함에 동시에 신청이 몰려도 한 명만 잡히는지(이중 예약 없음) 확인.
+ * 내장 H2(PostgreSQL 모드)에 Flyway 스키마를 올려서 실제 조건부 UPDATE를 탄다.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:concurrency;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.hikari.maximum-pool-size=16",
+                // H2는 text를 CLOB으로 만들어서 validate가 실패함(스키마는 Flyway가 이미 만듦)
+                "spring.jpa.hibernate.ddl-auto=none",
+                "app.lockers.banks[0].name=test",
+                "app.lockers.banks[0].from=1",
+                "app.lockers.banks[0].to=10",
+                "app.hashing.threads=4",
+                "app.hashing.queue-capacity=256",
+                "app.hashing.bcrypt-strength=4"
+        }
+)
+class LockerServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int LOCKER = 1;
+
+    @Autowired
+    private LockerService service;
+    @Autowired
+    private LockerRepository lockerRepo;
+    @Autowired
+    private ApplicationRepository appRepo;
+
+    @BeforeEach
+    void reset() {
+        service.resetAll();
+    }
+
+    @Test
+    void onlyOneApplicantGetsTheSameLocker() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                String studentId = "S" + i;
+                results.add(pool.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    try {
+                        service.apply(studentId, "학생", "010-0000-0000", LOCKER);
+                        return true;
+                    } catch (IllegalStateException e) {
+                        // 경쟁에서 짐(이미 예약/사용 중인 사물함)
+                        return false;
+                    }
+                }));
+            }
+
+            assertThat(ready.await(10, TimeUnit.SECONDS)).isTrue();
+            go.countDown();
+
+            int winners = 0;
+            for (Future<Boolean> f : results) {
+                if (f.get(30, TimeUnit.SECONDS)) winners++;
+            }
+            assertThat(winners).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<Application> apps = appRepo.findAll().stream()
+                .filter(a -> a.getLockerNumber() == LOCKER)
+                .toList();
+        assertThat(apps).hasSize(1);
+
+        Locker locker = lockerRepo.findById(LOCKER).orElseThrow();
+        assertThat(locker.getState()).isEqualTo(Locker.State.RESERVED);
+        assertThat(locker.getReservedStudentId()).isEqualTo(apps.get(0).getStudentId());
+    }
+}